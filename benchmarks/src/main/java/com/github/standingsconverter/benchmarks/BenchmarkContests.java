@@ -0,0 +1,21 @@
+package com.github.standingsconverter.benchmarks;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.generator.ContestGenerator;
+
+/**
+ * Synthetic contests of a given size, seeded by the size so that every run measures the same data.
+ */
+final class BenchmarkContests {
+    private static final int SUBMISSIONS_PER_TEAM = 50;
+
+    private BenchmarkContests() {
+    }
+
+    static Contest create(int submissions) {
+        return new ContestGenerator(submissions)
+                .setTeams(Math.max(1, submissions / SUBMISSIONS_PER_TEAM))
+                .setSubmissions(submissions)
+                .generate();
+    }
+}
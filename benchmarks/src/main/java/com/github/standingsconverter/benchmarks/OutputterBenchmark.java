@@ -0,0 +1,62 @@
+package com.github.standingsconverter.benchmarks;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.outputter.BinaryOutputter;
+import com.github.standingsconverter.outputter.EjudgeOutputter;
+import com.github.standingsconverter.outputter.Outputter;
+import com.github.standingsconverter.outputter.TestsysOutputter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes a synthetic contest of the given number of submissions.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OutputterBenchmark {
+    @Param({"ejudge", "testsys", "binary"})
+    public String format;
+
+    @Param({"10000", "1000000"})
+    public int submissions;
+
+    private File outputFile;
+    private Outputter outputter;
+    private Contest contest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        switch (format) {
+            case "ejudge":
+                outputter = new EjudgeOutputter();
+                break;
+            case "testsys":
+                outputter = new TestsysOutputter();
+                break;
+            case "binary":
+                outputter = new BinaryOutputter();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        contest = BenchmarkContests.create(submissions);
+        outputFile = File.createTempFile("standings-converter-benchmark", "." + format);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public void output() throws IOException {
+        outputter.output(contest, outputFile.getPath());
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.standingsconverter.benchmarks;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.generator.ContestFormats;
+import com.github.standingsconverter.parser.*;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a synthetic contest log of the given number of submissions. The Codeforces API is served by a local HTTP
+ * server from the generated responses, so that benchmark includes the loopback round trips.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+    @Param({"ejudge", "pcms", "testsys", "yandexcontest", "codeforces", "binary"})
+    public String format;
+
+    @Param({"10000", "1000000"})
+    public int submissions;
+
+    private File directory;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private Parser parser;
+    private String inputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("standings-converter-benchmark").toFile();
+        Contest contest = BenchmarkContests.create(submissions);
+        switch (format) {
+            case ContestFormats.EJUDGE:
+                parser = new EjudgeParser();
+                break;
+            case ContestFormats.PCMS:
+                parser = new PCMSParser();
+                break;
+            case ContestFormats.TESTSYS:
+                parser = new TestsysParser();
+                break;
+            case ContestFormats.YANDEX_CONTEST:
+                parser = new YandexContestParser();
+                break;
+            case ContestFormats.BINARY:
+                parser = new BinaryParser();
+                break;
+            case ContestFormats.CODEFORCES:
+                startServer();
+                parser = new CodeforcesAPIParser("http://localhost:" + server.getAddress().getPort() + "/api");
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+        File file;
+        if (format.equals(ContestFormats.CODEFORCES)) {
+            file = ContestFormats.writeCodeforces(contest, directory);
+        } else {
+            file = new File(directory, "contest." + format);
+            ContestFormats.write(format, contest, file.getPath());
+        }
+        inputFile = file.getPath();
+    }
+
+    private void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/", exchange -> {
+            String method = exchange.getRequestURI().getPath().substring("/api/".length());
+            File response = new File(directory, method + ".json");
+            exchange.sendResponseHeaders(200, response.length());
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                Files.copy(response.toPath(), outputStream);
+            }
+        });
+        server.start();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (server != null) {
+            server.stop(0);
+            serverExecutor.shutdownNow();
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    @Benchmark
+    public Contest parse() throws IOException {
+        return parser.parse(inputFile);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.standingsconverter.benchmarks;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.standings.StandingsEngine;
+import com.github.standingsconverter.standings.StandingsSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ranks a synthetic contest of the given number of submissions in a single pass of the standings engine.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class StandingsBenchmark {
+    @Param({"1000000", "10000000"})
+    public int submissions;
+
+    private Contest contest;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contest = BenchmarkContests.create(submissions);
+    }
+
+    @Benchmark
+    public StandingsSnapshot rank() {
+        return StandingsEngine.of(contest).snapshot();
+    }
+}
@@ -0,0 +1,84 @@
+package com.github.standingsconverter.benchmarks;
+
+import com.github.standingsconverter.main.ClassFactory;
+import com.github.standingsconverter.outputter.Outputter;
+import com.github.standingsconverter.parser.Parser;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first conversion of a small contest in a fresh JVM, as done by a single run of the converter, so the time is
+ * mostly spent on loading and initializing the classes. Every fork measures one conversion. The logs are written as
+ * plain text, so no class of the converter is loaded before the measurement.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(30)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+    private static final String TESTSYS_LOG = "\n"
+            + "@contest \"Startup\"\n"
+            + "@contlen 300\n"
+            + "@problems 2\n"
+            + "@teams 2\n"
+            + "@submissions 3\n"
+            + "@p A,Alpha,20,0\n"
+            + "@p B,Beta,20,0\n"
+            + "@t 1,0,1,\"First\"\n"
+            + "@t 2,0,1,\"Second\"\n"
+            + "@s 1,A,1,600,OK\n"
+            + "@s 2,A,1,900,WA\n"
+            + "@s 2,B,1,1200,OK\n";
+
+    private static final String EJUDGE_LOG = "<?xml version=\"1.0\" encoding=\"utf-8\" ?>\n"
+            + "<runlog contest_id=\"1\" duration=\"18000\">\n"
+            + "    <name>Startup</name>\n"
+            + "    <users>\n"
+            + "        <user id=\"1\" name=\"First\"/>\n"
+            + "        <user id=\"2\" name=\"Second\"/>\n"
+            + "    </users>\n"
+            + "    <problems>\n"
+            + "        <problem id=\"1\" short_name=\"A\" long_name=\"Alpha\"/>\n"
+            + "        <problem id=\"2\" short_name=\"B\" long_name=\"Beta\"/>\n"
+            + "    </problems>\n"
+            + "    <runs>\n"
+            + "        <run run_id=\"0\" time=\"600\" status=\"OK\" user_id=\"1\" prob_id=\"1\"/>\n"
+            + "        <run run_id=\"1\" time=\"900\" status=\"WA\" user_id=\"2\" prob_id=\"1\"/>\n"
+            + "        <run run_id=\"2\" time=\"1200\" status=\"OK\" user_id=\"2\" prob_id=\"2\"/>\n"
+            + "    </runs>\n"
+            + "</runlog>\n";
+
+    @Param({"testsys", "ejudge"})
+    public String format;
+
+    private File inputFile;
+    private File outputFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        inputFile = File.createTempFile("standings-converter-startup", "." + format);
+        outputFile = File.createTempFile("standings-converter-startup", ".dat");
+        String log = format.equals("ejudge") ? EJUDGE_LOG : TESTSYS_LOG;
+        Files.write(inputFile.toPath(), log.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        inputFile.delete();
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public void convert() throws IOException {
+        Parser parser = ClassFactory.createInstance(Parser.class, format);
+        Outputter outputter = ClassFactory.createInstance(Outputter.class, "testsys");
+        outputter.output(parser.parse(inputFile.getPath()), outputFile.getPath());
+    }
+}
@@ -0,0 +1,52 @@
+package com.github.standingsconverter.benchmarks;
+
+import com.github.standingsconverter.entity.Submission;
+import com.github.standingsconverter.parser.SubmissionOrdering;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Orders shuffled submissions by time and id with the radix sort of the parsers and with the comparator sort it
+ * replaced.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx8g")
+@State(Scope.Benchmark)
+public class SubmissionOrderingBenchmark {
+    @Param({"1000000", "10000000"})
+    public int submissions;
+
+    private List<Submission> shuffled;
+    private List<Submission> list;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        shuffled = new ArrayList<>(BenchmarkContests.create(submissions).getSubmissions());
+        Collections.shuffle(shuffled, new Random(submissions));
+    }
+
+    @Setup(Level.Invocation)
+    public void copy() {
+        list = new ArrayList<>(shuffled);
+    }
+
+    @Benchmark
+    public List<Submission> radixSort() {
+        SubmissionOrdering.sort(list);
+        return list;
+    }
+
+    @Benchmark
+    public List<Submission> comparatorSort() {
+        Collections.sort(list, SubmissionOrdering.ORDER);
+        return list;
+    }
+}
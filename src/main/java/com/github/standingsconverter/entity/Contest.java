@@ -2,19 +2,27 @@ package com.github.standingsconverter.entity;
 
 import java.util.List;
 
+/**
+ * A parsed contest. The submissions are always kept in a {@link SubmissionTable}, a contest created from a list of
+ * submissions converts them once in the constructor and doesn't keep the list.
+ */
 public class Contest {
     private final String name;
     private final long duration;
     private final List<Problem> problems;
     private final List<Team> teams;
-    private final List<Submission> submissions;
+    private final SubmissionTable submissionTable;
 
     public Contest(String name, long duration, List<Problem> problems, List<Team> teams, List<Submission> submissions) {
+        this(name, duration, problems, teams, SubmissionTable.of(teams, problems, submissions));
+    }
+
+    public Contest(String name, long duration, List<Problem> problems, List<Team> teams, SubmissionTable submissionTable) {
         this.name = name;
         this.duration = duration;
         this.problems = problems;
         this.teams = teams;
-        this.submissions = submissions;
+        this.submissionTable = submissionTable;
     }
 
     public String getName() {
@@ -33,7 +41,15 @@ public class Contest {
         return teams;
     }
 
+    /**
+     * Returns a read-only view of the submissions which creates the submission objects on demand. Code going over all
+     * of them should read the {@link #getSubmissionTable() table} instead.
+     */
     public List<Submission> getSubmissions() {
-        return submissions;
+        return submissionTable.asList();
+    }
+
+    public SubmissionTable getSubmissionTable() {
+        return submissionTable;
     }
 }
@@ -0,0 +1,300 @@
+package com.github.standingsconverter.entity;
+
+import java.util.*;
+
+/**
+ * Columnar storage of submissions: every field is kept in its own primitive array, and teams and problems are
+ * referenced by their indexes in the lists given to the constructor. A submission takes 23 bytes here instead of a
+ * separate {@link Submission} object and a reference to it. The rows are read with a {@link Cursor}, or through the
+ * {@link #asList()} view which creates the submission objects on demand.
+ */
+public class SubmissionTable {
+    private static final Verdict[] VERDICTS = Verdict.values();
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private final List<Team> teams;
+    private final List<Problem> problems;
+    private final boolean readOnly;
+    private int size;
+    private int[] ids;
+    private int[] teamIndexes;
+    private char[] problemIndexes;
+    private int[] attempts;
+    private long[] times;
+    private byte[] verdicts;
+
+    public SubmissionTable(List<Team> teams, List<Problem> problems) {
+        this(teams, problems, DEFAULT_CAPACITY);
+    }
+
+    public SubmissionTable(List<Team> teams, List<Problem> problems, int capacity) {
+        if (problems.size() > Character.MAX_VALUE + 1) {
+            throw new IllegalArgumentException("Too many problems: " + problems.size());
+        }
+        this.teams = teams;
+        this.problems = problems;
+        this.readOnly = false;
+        capacity = Math.max(capacity, 1);
+        ids = new int[capacity];
+        teamIndexes = new int[capacity];
+        problemIndexes = new char[capacity];
+        attempts = new int[capacity];
+        times = new long[capacity];
+        verdicts = new byte[capacity];
+    }
+
+    /**
+     * Creates a table over the given columns without copying them, for decoders of columnar formats which fill the
+     * arrays directly. The verdicts are given by their ordinals.
+     */
+    public SubmissionTable(List<Team> teams, List<Problem> problems, int[] ids, int[] teamIndexes, char[] problemIndexes,
+                           int[] attempts, long[] times, byte[] verdicts) {
+        int size = ids.length;
+        if (teamIndexes.length != size || problemIndexes.length != size || attempts.length != size
+                || times.length != size || verdicts.length != size) {
+            throw new IllegalArgumentException("Columns have different lengths");
+        }
+        for (int row = 0; row < size; row++) {
+            if (teamIndexes[row] < 0 || teamIndexes[row] >= teams.size()) {
+                throw new IndexOutOfBoundsException("Team index: " + teamIndexes[row] + ", teams: " + teams.size());
+            }
+            if (problemIndexes[row] >= problems.size()) {
+                throw new IndexOutOfBoundsException("Problem index: " + (int) problemIndexes[row] + ", problems: " + problems.size());
+            }
+            if (verdicts[row] < 0 || verdicts[row] >= VERDICTS.length) {
+                throw new IllegalArgumentException("Verdict ordinal: " + verdicts[row]);
+            }
+        }
+        this.teams = teams;
+        this.problems = problems;
+        this.readOnly = false;
+        this.size = size;
+        this.ids = ids;
+        this.teamIndexes = teamIndexes;
+        this.problemIndexes = problemIndexes;
+        this.attempts = attempts;
+        this.times = times;
+        this.verdicts = verdicts;
+    }
+
+    /**
+     * Converts the submissions to a table. The teams and problems which are referenced by the submissions but are
+     * absent in the given lists are appended to the table's own copies of them.
+     */
+    public static SubmissionTable of(List<Team> teams, List<Problem> problems, List<Submission> submissions) {
+        List<Team> tableTeams = new ArrayList<>(teams);
+        List<Problem> tableProblems = new ArrayList<>(problems);
+        Map<Team, Integer> teamIndexes = new IdentityHashMap<>();
+        for (int i = 0; i < tableTeams.size(); i++) {
+            teamIndexes.put(tableTeams.get(i), i);
+        }
+        Map<Problem, Integer> problemIndexes = new IdentityHashMap<>();
+        for (int i = 0; i < tableProblems.size(); i++) {
+            problemIndexes.put(tableProblems.get(i), i);
+        }
+        SubmissionTable table = new SubmissionTable(tableTeams, tableProblems, submissions.size());
+        for (Submission submission : submissions) {
+            Integer teamIndex = teamIndexes.get(submission.getTeam());
+            if (teamIndex == null) {
+                teamIndex = tableTeams.size();
+                tableTeams.add(submission.getTeam());
+                teamIndexes.put(submission.getTeam(), teamIndex);
+            }
+            Integer problemIndex = problemIndexes.get(submission.getProblem());
+            if (problemIndex == null) {
+                problemIndex = tableProblems.size();
+                tableProblems.add(submission.getProblem());
+                problemIndexes.put(submission.getProblem(), problemIndex);
+            }
+            table.add(submission.getId(), teamIndex, problemIndex, submission.getAttempt(), submission.getTime(), submission.getVerdict());
+        }
+        return table;
+    }
+
+    private SubmissionTable(SubmissionTable table) {
+        teams = Collections.unmodifiableList(new ArrayList<>(table.teams));
+        problems = Collections.unmodifiableList(new ArrayList<>(table.problems));
+        readOnly = true;
+        size = table.size;
+        ids = table.ids;
+        teamIndexes = table.teamIndexes;
+        problemIndexes = table.problemIndexes;
+        attempts = table.attempts;
+        times = table.times;
+        verdicts = table.verdicts;
+    }
+
+    /**
+     * Returns a read-only view of the rows added so far, which takes O(1) time and no copying of the rows. The view
+     * shares the arrays with this table: the rows added later go beyond its size, and growing replaces the arrays
+     * instead of changing them, so the view never changes. Only the lists of teams and problems are copied.
+     */
+    public SubmissionTable snapshot() {
+        return new SubmissionTable(this);
+    }
+
+    public void add(int id, int teamIndex, int problemIndex, int attempt, long time, Verdict verdict) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("The table is a read-only snapshot");
+        }
+        if (teamIndex < 0 || teamIndex >= teams.size()) {
+            throw new IndexOutOfBoundsException("Team index: " + teamIndex + ", teams: " + teams.size());
+        }
+        if (problemIndex < 0 || problemIndex >= problems.size()) {
+            throw new IndexOutOfBoundsException("Problem index: " + problemIndex + ", problems: " + problems.size());
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        ids[size] = id;
+        teamIndexes[size] = teamIndex;
+        problemIndexes[size] = (char) problemIndex;
+        attempts[size] = attempt;
+        times[size] = time;
+        verdicts[size] = (byte) verdict.ordinal();
+        size++;
+    }
+
+    private void grow() {
+        int capacity = ids.length + (ids.length >> 1) + 1;
+        ids = Arrays.copyOf(ids, capacity);
+        teamIndexes = Arrays.copyOf(teamIndexes, capacity);
+        problemIndexes = Arrays.copyOf(problemIndexes, capacity);
+        attempts = Arrays.copyOf(attempts, capacity);
+        times = Arrays.copyOf(times, capacity);
+        verdicts = Arrays.copyOf(verdicts, capacity);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    public List<Problem> getProblems() {
+        return problems;
+    }
+
+    public int getId(int row) {
+        return ids[checkRow(row)];
+    }
+
+    public int getTeamIndex(int row) {
+        return teamIndexes[checkRow(row)];
+    }
+
+    public Team getTeam(int row) {
+        return teams.get(getTeamIndex(row));
+    }
+
+    public int getProblemIndex(int row) {
+        return problemIndexes[checkRow(row)];
+    }
+
+    public Problem getProblem(int row) {
+        return problems.get(getProblemIndex(row));
+    }
+
+    public int getAttempt(int row) {
+        return attempts[checkRow(row)];
+    }
+
+    public long getTime(int row) {
+        return times[checkRow(row)];
+    }
+
+    public Verdict getVerdict(int row) {
+        return VERDICTS[verdicts[checkRow(row)]];
+    }
+
+    public Submission getSubmission(int row) {
+        return new Submission(getId(row), getTeam(row), getProblem(row), getAttempt(row), getTime(row), getVerdict(row));
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", size: " + size);
+        }
+        return row;
+    }
+
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    /**
+     * Returns a read-only view of the table. Every call of {@link List#get} creates a new submission object.
+     */
+    public List<Submission> asList() {
+        return new SubmissionList();
+    }
+
+    /**
+     * Iterates over the rows without creating objects. {@link #next()} must be called before reading the first row.
+     */
+    public class Cursor {
+        private int row = -1;
+
+        private Cursor() {
+        }
+
+        public boolean next() {
+            if (row + 1 >= size) {
+                row = size;
+                return false;
+            }
+            row++;
+            return true;
+        }
+
+        public int getRow() {
+            return row;
+        }
+
+        public int getId() {
+            return ids[row];
+        }
+
+        public int getTeamIndex() {
+            return teamIndexes[row];
+        }
+
+        public Team getTeam() {
+            return teams.get(teamIndexes[row]);
+        }
+
+        public int getProblemIndex() {
+            return problemIndexes[row];
+        }
+
+        public Problem getProblem() {
+            return problems.get(problemIndexes[row]);
+        }
+
+        public int getAttempt() {
+            return attempts[row];
+        }
+
+        public long getTime() {
+            return times[row];
+        }
+
+        public Verdict getVerdict() {
+            return VERDICTS[verdicts[row]];
+        }
+    }
+
+    private class SubmissionList extends AbstractList<Submission> implements RandomAccess {
+        @Override
+        public Submission get(int index) {
+            return getSubmission(index);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
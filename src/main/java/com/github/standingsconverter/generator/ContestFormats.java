@@ -0,0 +1,277 @@
+package com.github.standingsconverter.generator;
+
+import com.github.standingsconverter.entity.*;
+import com.github.standingsconverter.outputter.BinaryOutputter;
+import com.github.standingsconverter.outputter.EjudgeOutputter;
+import com.github.standingsconverter.outputter.TestsysOutputter;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes contests in the input formats of all parsers. Verdicts which a format doesn't have are replaced with the
+ * closest ones, e.g. PCMS only distinguishes accepted and rejected runs.
+ */
+public class ContestFormats {
+    public static final String EJUDGE = "ejudge";
+    public static final String PCMS = "pcms";
+    public static final String TESTSYS = "testsys";
+    public static final String YANDEX_CONTEST = "yandexcontest";
+    public static final String CODEFORCES = "codeforces";
+    public static final String BINARY = "binary";
+    public static final List<String> FORMATS = Collections.unmodifiableList(Arrays.asList(EJUDGE, PCMS, TESTSYS, YANDEX_CONTEST, CODEFORCES, BINARY));
+
+    public static final int CODEFORCES_CONTEST_ID = 100500;
+    public static final String CODEFORCES_STANDINGS_FILE = "contest.standings.json";
+    public static final String CODEFORCES_STATUS_FILE = "contest.status.json";
+    public static final String CODEFORCES_PROPERTIES_FILE = "contest.properties";
+
+    private ContestFormats() {
+    }
+
+    /**
+     * Writes the contest in the given format. For Codeforces the output is a directory which gets the recorded
+     * responses of the API methods and the properties file for the parser.
+     */
+    public static void write(String format, Contest contest, String output) throws IOException {
+        switch (format) {
+            case EJUDGE:
+                writeEjudge(contest, new File(output));
+                break;
+            case PCMS:
+                writePCMS(contest, new File(output));
+                break;
+            case TESTSYS:
+                writeTestsys(contest, new File(output));
+                break;
+            case YANDEX_CONTEST:
+                writeYandexContest(contest, new File(output));
+                break;
+            case CODEFORCES:
+                writeCodeforces(contest, new File(output));
+                break;
+            case BINARY:
+                writeBinary(contest, new File(output));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    public static void writeEjudge(Contest contest, File file) throws IOException {
+        new EjudgeOutputter().output(contest, file.getPath());
+    }
+
+    public static void writeTestsys(Contest contest, File file) throws IOException {
+        new TestsysOutputter().output(contest, file.getPath());
+    }
+
+    public static void writeBinary(Contest contest, File file) throws IOException {
+        new BinaryOutputter().output(contest, file.getPath());
+    }
+
+    public static void writePCMS(Contest contest, File file) throws IOException {
+        SubmissionTable submissions = contest.getSubmissionTable();
+        List<Team> teams = submissions.getTeams();
+        List<Problem> problems = submissions.getProblems();
+        // the runs are grouped by team and problem with a counting sort of the rows, keeping them in time order
+        long cells = (long) teams.size() * problems.size();
+        if (cells > Integer.MAX_VALUE - 1) {
+            throw new IllegalArgumentException("Too many teams and problems: " + teams.size() + " * " + problems.size());
+        }
+        int[] starts = new int[(int) cells + 1];
+        for (int row = 0; row < submissions.size(); row++) {
+            starts[cell(submissions, row, problems.size()) + 1]++;
+        }
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] += starts[i - 1];
+        }
+        int[] rows = new int[submissions.size()];
+        int[] positions = Arrays.copyOf(starts, starts.length - 1);
+        for (int row = 0; row < submissions.size(); row++) {
+            rows[positions[cell(submissions, row, problems.size())]++] = row;
+        }
+        try (Writer writer = newWriter(file)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<standings>\n");
+            writer.write("    <contest name=\"" + escape(contest.getName()) + "\" length=\"" + contest.getDuration() * 60 * 1000 + "\">\n");
+            writer.write("        <challenge>\n");
+            for (Problem problem : problems) {
+                writer.write("            <problem alias=\"" + escape(Character.toString(problem.getId())) + "\" name=\"" + escape(problem.getName()) + "\"/>\n");
+            }
+            writer.write("        </challenge>\n");
+            for (int team = 0; team < teams.size(); team++) {
+                writer.write("        <session alias=\"S" + team + "\" party=\"" + escape(teams.get(team).getName()) + "\">\n");
+                for (int problem = 0; problem < problems.size(); problem++) {
+                    writer.write("            <problem alias=\"" + escape(Character.toString(problems.get(problem).getId())) + "\">\n");
+                    int cell = team * problems.size() + problem;
+                    for (int i = starts[cell]; i < starts[cell + 1]; i++) {
+                        String accepted = submissions.getVerdict(rows[i]) == Verdict.ACCEPTED ? "yes" : "no";
+                        writer.write("                <run accepted=\"" + accepted + "\" time=\"" + submissions.getTime(rows[i]) * 1000 + "\"/>\n");
+                    }
+                    writer.write("            </problem>\n");
+                }
+                writer.write("        </session>\n");
+            }
+            writer.write("    </contest>\n");
+            writer.write("</standings>\n");
+        }
+    }
+
+    private static int cell(SubmissionTable submissions, int row, int problems) {
+        return submissions.getTeamIndex(row) * problems + submissions.getProblemIndex(row);
+    }
+
+    public static void writeYandexContest(Contest contest, File file) throws IOException {
+        try (Writer writer = newWriter(file)) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            writer.write("<contestLog>\n");
+            writer.write("  <settings>\n");
+            writer.write("    <contestName>" + escape(contest.getName()) + "</contestName>\n");
+            writer.write(String.format("    <duration>%d:%02d:00</duration>\n", contest.getDuration() / 60, contest.getDuration() % 60));
+            writer.write("  </settings>\n");
+            writer.write("  <problems>\n");
+            for (Problem problem : contest.getProblems()) {
+                writer.write("    <problem title=\"" + escape(Character.toString(problem.getId())) + "\" longName=\"" + escape(problem.getName()) + "\"/>\n");
+            }
+            writer.write("  </problems>\n");
+            writer.write("  <users>\n");
+            for (Team team : contest.getTeams()) {
+                writer.write("    <user id=\"" + team.getId() + "\" loginName=\"\" displayedName=\"" + escape(team.getName()) + "\"/>\n");
+            }
+            writer.write("  </users>\n");
+            writer.write("  <events>\n");
+            SubmissionTable.Cursor submission = contest.getSubmissionTable().cursor();
+            while (submission.next()) {
+                writer.write("    <submit contestTime=\"" + submission.getTime() * 1000 + "\" id=\"" + submission.getId()
+                        + "\" problemTitle=\"" + escape(Character.toString(submission.getProblem().getId()))
+                        + "\" userId=\"" + submission.getTeam().getId()
+                        + "\" verdict=\"" + toYandexContest(submission.getVerdict()) + "\"/>\n");
+            }
+            writer.write("  </events>\n");
+            writer.write("</contestLog>\n");
+        }
+    }
+
+    /**
+     * Writes the responses of contest.standings and contest.status into the directory as a local server would return
+     * them, and the properties file for the CodeforcesAPIParser, which is returned.
+     */
+    public static File writeCodeforces(Contest contest, File directory) throws IOException {
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Can't create directory " + directory);
+        }
+        try (Writer writer = newWriter(new File(directory, CODEFORCES_STANDINGS_FILE))) {
+            writer.write("{\"status\":\"OK\",\"result\":{\"contest\":{\"id\":" + CODEFORCES_CONTEST_ID + ",\"name\":\"" + json(contest.getName())
+                    + "\",\"type\":\"ICPC\",\"phase\":\"FINISHED\",\"durationSeconds\":" + contest.getDuration() * 60 + "},\"problems\":[");
+            boolean first = true;
+            for (Problem problem : contest.getProblems()) {
+                writer.write((first ? "" : ",") + "{\"contestId\":" + CODEFORCES_CONTEST_ID + ",\"index\":\""
+                        + json(Character.toString(problem.getId())) + "\",\"name\":\"" + json(problem.getName()) + "\"}");
+                first = false;
+            }
+            writer.write("],\"rows\":[");
+            first = true;
+            int rank = 1;
+            for (Team team : contest.getTeams()) {
+                writer.write((first ? "" : ",") + "{\"party\":" + party(team) + ",\"rank\":" + rank++ + "}");
+                first = false;
+            }
+            writer.write("]}}");
+        }
+        try (Writer writer = newWriter(new File(directory, CODEFORCES_STATUS_FILE))) {
+            writer.write("{\"status\":\"OK\",\"result\":[");
+            SubmissionTable submissions = contest.getSubmissionTable();
+            // the newest submissions go first, the ids of submissions grow with time
+            for (int row = submissions.size() - 1; row >= 0; row--) {
+                writer.write((row == submissions.size() - 1 ? "" : ",") + "{\"id\":" + (submissions.size() - row)
+                        + ",\"contestId\":" + CODEFORCES_CONTEST_ID + ",\"relativeTimeSeconds\":" + submissions.getTime(row)
+                        + ",\"problem\":{\"contestId\":" + CODEFORCES_CONTEST_ID + ",\"index\":\""
+                        + json(Character.toString(submissions.getProblem(row).getId())) + "\"},\"author\":"
+                        + party(submissions.getTeam(row)) + ",\"verdict\":\"" + toCodeforces(submissions.getVerdict(row)) + "\"}");
+            }
+            writer.write("]}");
+        }
+        File properties = new File(directory, CODEFORCES_PROPERTIES_FILE);
+        try (Writer writer = newWriter(properties)) {
+            writer.write("contestId = " + CODEFORCES_CONTEST_ID + "\n");
+        }
+        return properties;
+    }
+
+    private static String party(Team team) {
+        return "{\"contestId\":" + CODEFORCES_CONTEST_ID + ",\"members\":[{\"handle\":\"user" + team.getId()
+                + "\"}],\"participantType\":\"CONTESTANT\",\"ghost\":false,\"teamName\":\"" + json(team.getName()) + "\"}";
+    }
+
+    private static String toYandexContest(Verdict verdict) {
+        switch (verdict) {
+            case ACCEPTED: return "OK";
+            case RUNTIME_ERROR: return "RE";
+            case SECURITY_VIOLATION: return "RE";
+            case TIME_LIMIT_EXCEEDED: return "TL";
+            case MEMORY_LIMIT_EXCEEDED: return "ML";
+            case COMPILATION_ERROR: return "CE";
+            case PRESENTATION_ERROR: return "PE";
+            case IDLENESS_LIMIT_EXCEEDED: return "IL";
+            case WRONG_ANSWER: return "WA";
+            case REJECTED: return "WA";
+        }
+        throw new IllegalArgumentException("Unknown verdict: " + verdict);
+    }
+
+    private static String toCodeforces(Verdict verdict) {
+        switch (verdict) {
+            case ACCEPTED: return "OK";
+            case SECURITY_VIOLATION: return "RUNTIME_ERROR";
+            default: return verdict.name();
+        }
+    }
+
+    private static Writer newWriter(File file) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private static String escape(String s) {
+        StringBuilder result = null;
+        for (int i = 0; i < s.length(); i++) {
+            String replacement;
+            switch (s.charAt(i)) {
+                case '&': replacement = "&amp;"; break;
+                case '<': replacement = "&lt;"; break;
+                case '>': replacement = "&gt;"; break;
+                case '"': replacement = "&quot;"; break;
+                default: replacement = null; break;
+            }
+            if (replacement != null && result == null) {
+                result = new StringBuilder(s.substring(0, i));
+            }
+            if (result != null) {
+                if (replacement != null) {
+                    result.append(replacement);
+                } else {
+                    result.append(s.charAt(i));
+                }
+            }
+        }
+        return result == null ? s : result.toString();
+    }
+
+    private static String json(String s) {
+        StringBuilder result = new StringBuilder(s.length());
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                result.append('\\').append(c);
+            } else if (c < 0x20) {
+                result.append(String.format("\\u%04x", (int) c));
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+}
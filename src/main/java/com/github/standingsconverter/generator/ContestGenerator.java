@@ -0,0 +1,155 @@
+package com.github.standingsconverter.generator;
+
+import com.github.standingsconverter.entity.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates synthetic contests for load testing. The same seed and settings always give the same contest. The
+ * submissions are stored in a {@link SubmissionTable}, so millions of them fit in memory.
+ */
+public class ContestGenerator {
+    private static final int MAX_PROBLEMS = 26;
+
+    private final long seed;
+    private int teams = 100;
+    private int problems = 12;
+    private int submissions = 5000;
+    private long duration = 300;
+    private double timeSkew = 0;
+    private final int[] verdictWeights = new int[Verdict.values().length];
+
+    public ContestGenerator(long seed) {
+        this.seed = seed;
+        verdictWeights[Verdict.ACCEPTED.ordinal()] = 25;
+        verdictWeights[Verdict.WRONG_ANSWER.ordinal()] = 40;
+        verdictWeights[Verdict.TIME_LIMIT_EXCEEDED.ordinal()] = 12;
+        verdictWeights[Verdict.RUNTIME_ERROR.ordinal()] = 8;
+        verdictWeights[Verdict.COMPILATION_ERROR.ordinal()] = 7;
+        verdictWeights[Verdict.PRESENTATION_ERROR.ordinal()] = 5;
+        verdictWeights[Verdict.MEMORY_LIMIT_EXCEEDED.ordinal()] = 3;
+    }
+
+    public ContestGenerator setTeams(int teams) {
+        if (teams <= 0) {
+            throw new IllegalArgumentException("Number of teams must be positive: " + teams);
+        }
+        this.teams = teams;
+        return this;
+    }
+
+    public ContestGenerator setProblems(int problems) {
+        if (problems <= 0 || problems > MAX_PROBLEMS) {
+            throw new IllegalArgumentException("Number of problems must be from 1 to " + MAX_PROBLEMS + ": " + problems);
+        }
+        this.problems = problems;
+        return this;
+    }
+
+    public ContestGenerator setSubmissions(int submissions) {
+        if (submissions < 0) {
+            throw new IllegalArgumentException("Number of submissions must be non-negative: " + submissions);
+        }
+        this.submissions = submissions;
+        return this;
+    }
+
+    // in minutes
+    public ContestGenerator setDuration(long duration) {
+        if (duration <= 0 || duration * 60 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Wrong duration: " + duration);
+        }
+        this.duration = duration;
+        return this;
+    }
+
+    /**
+     * Sets how the submissions crowd to the end of the contest: 0 spreads them uniformly, and the density at the time
+     * t grows as t^timeSkew otherwise.
+     */
+    public ContestGenerator setTimeSkew(double timeSkew) {
+        if (timeSkew < 0) {
+            throw new IllegalArgumentException("Time skew must be non-negative: " + timeSkew);
+        }
+        this.timeSkew = timeSkew;
+        return this;
+    }
+
+    public ContestGenerator setVerdictWeight(Verdict verdict, int weight) {
+        if (weight < 0) {
+            throw new IllegalArgumentException("Weight must be non-negative: " + weight);
+        }
+        verdictWeights[verdict.ordinal()] = weight;
+        return this;
+    }
+
+    public Contest generate() {
+        if ((long) teams * problems > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many teams and problems: " + teams + " * " + problems);
+        }
+        int[] cumulativeWeights = new int[verdictWeights.length];
+        int totalWeight = 0;
+        for (int i = 0; i < verdictWeights.length; i++) {
+            totalWeight += verdictWeights[i];
+            cumulativeWeights[i] = totalWeight;
+        }
+        if (totalWeight == 0 && submissions > 0) {
+            throw new IllegalArgumentException("All verdict weights are zero");
+        }
+        Random random = new Random(seed);
+        List<Problem> problemList = new ArrayList<>(problems);
+        for (int i = 0; i < problems; i++) {
+            char id = (char) ('A' + i);
+            problemList.add(new Problem(id, "Problem " + id));
+        }
+        List<Team> teamList = new ArrayList<>(teams);
+        for (int i = 0; i < teams; i++) {
+            teamList.add(new Team(i, "Team " + (i + 1)));
+        }
+        int maxTime = (int) (duration * 60);
+        int[] times = new int[submissions];
+        for (int i = 0; i < submissions; i++) {
+            double u = random.nextDouble();
+            if (timeSkew > 0) {
+                u = Math.pow(u, 1 / (1 + timeSkew));
+            }
+            times[i] = (int) Math.min(maxTime, (long) (u * (maxTime + 1)));
+        }
+        Arrays.sort(times);
+        int[] attempts = new int[teams * problems];
+        SubmissionTable table = new SubmissionTable(teamList, problemList, submissions);
+        Verdict[] verdicts = Verdict.values();
+        for (int i = 0; i < submissions; i++) {
+            int team = random.nextInt(teams);
+            int problem = random.nextInt(problems);
+            int weight = random.nextInt(totalWeight);
+            int verdict = 0;
+            while (cumulativeWeights[verdict] <= weight) {
+                verdict++;
+            }
+            int attempt = ++attempts[team * problems + problem];
+            table.add(i, team, problem, attempt, times[i], verdicts[verdict]);
+        }
+        return new Contest("Generated Contest " + seed, duration, problemList, teamList, table);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 5 || args.length > 6) {
+            System.out.println("Usage: java -cp [jarFile] " + ContestGenerator.class.getName()
+                    + " [format] [output] [teams] [problems] [submissions] [seed]");
+            System.out.println("Formats: " + String.join(", ", ContestFormats.FORMATS));
+            return;
+        }
+        long seed = args.length == 6 ? Long.parseLong(args[5]) : 0;
+        Contest contest = new ContestGenerator(seed)
+                .setTeams(Integer.parseInt(args[2]))
+                .setProblems(Integer.parseInt(args[3]))
+                .setSubmissions(Integer.parseInt(args[4]))
+                .generate();
+        ContestFormats.write(args[0], contest, args[1]);
+    }
+}
@@ -0,0 +1,256 @@
+package com.github.standingsconverter.main;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.outputter.Outputter;
+import com.github.standingsconverter.parser.CachingParser;
+import com.github.standingsconverter.parser.ContestCache;
+import com.github.standingsconverter.parser.Parser;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs many conversions in one JVM on a fixed pool of threads. A failed job doesn't affect the others, its error is
+ * reported in the summary, including errors such as a stack overflow on a bad input. The outputters of a job run one
+ * by one in its thread, so a run never uses more threads than the pool. The jobs of a run share a
+ * {@link ContestCache}, so an input converted by several jobs is usually parsed once.
+ */
+public class BatchConverter {
+    private final int threads;
+
+    public BatchConverter(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Number of threads must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Reads the jobs from a manifest file. Every line is a job of the form
+     * {@code parserClass outputterClass inputFile outputFile [outputterClass outputFile]...}, tokens containing spaces
+     * may be enclosed in double quotes. Empty lines and lines starting with '#' are ignored. Relative paths are resolved against the directory
+     * of the manifest.
+     */
+    public static List<Job> readManifest(String manifestFile) throws IOException {
+        File directory = new File(manifestFile).getAbsoluteFile().getParentFile();
+        List<Job> jobs = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(new FileInputStream(manifestFile), StandardCharsets.UTF_8))) {
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                List<String> tokens = tokenize(line);
+                if (tokens.size() < 4 || tokens.size() % 2 != 0) {
+                    throw new IOException("Line " + lineNumber + " of " + manifestFile + " must contain a parser, an input and outputter-output pairs: " + line);
+                }
+                List<String> outputterNames = new ArrayList<>();
+                List<String> outputFiles = new ArrayList<>();
+                outputterNames.add(tokens.get(1));
+                outputFiles.add(resolve(directory, tokens.get(3)));
+                for (int i = 4; i < tokens.size(); i += 2) {
+                    outputterNames.add(tokens.get(i));
+                    outputFiles.add(resolve(directory, tokens.get(i + 1)));
+                }
+                jobs.add(new Job(tokens.get(0), resolve(directory, tokens.get(2)), outputterNames, outputFiles));
+            }
+        }
+        return jobs;
+    }
+
+    private static List<String> tokenize(String line) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < line.length()) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (c == '"') {
+                int end = line.indexOf('"', i + 1);
+                if (end < 0) {
+                    throw new IOException("Unclosed quote: " + line);
+                }
+                tokens.add(line.substring(i + 1, end));
+                i = end + 1;
+            } else {
+                int end = i;
+                while (end < line.length() && !Character.isWhitespace(line.charAt(end))) {
+                    end++;
+                }
+                tokens.add(line.substring(i, end));
+                i = end;
+            }
+        }
+        return tokens;
+    }
+
+    private static String resolve(File directory, String path) {
+        File file = new File(path);
+        return file.isAbsolute() ? path : new File(directory, path).getPath();
+    }
+
+    public Summary run(List<Job> jobs) throws InterruptedException {
+        long t1 = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Result> results = new ArrayList<>(jobs.size());
+        ContestCache cache = new ContestCache(ContestCache.DEFAULT_MAX_WEIGHT);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                futures.add(executor.submit(() -> convert(job, cache)));
+            }
+            for (Future<Result> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // convert() keeps the failures of a job in its result, so this is a failure of the JVM
+                    throw (VirtualMachineError) e.getCause();
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        long t2 = System.currentTimeMillis();
+        return new Summary(results, t2 - t1);
+    }
+
+    private static Result convert(Job job, ContestCache cache) {
+        long t1 = System.currentTimeMillis();
+        try {
+            Parser parser = new CachingParser(ClassFactory.createInstance(Parser.class, job.getParserName()), cache, false);
+            List<Outputter> outputters = new ArrayList<>();
+            for (String outputterName : job.getOutputterNames()) {
+                outputters.add(ClassFactory.createInstance(Outputter.class, outputterName));
+            }
+            Contest contest = parser.parse(job.getInputFile());
+            ParallelOutputs.outputSequentially(contest, outputters, job.getOutputFiles());
+            return new Result(job, null, System.currentTimeMillis() - t1);
+        } catch (Throwable e) {
+            // the stack and the memory of a failed job are released when it ends, other failures of the JVM stop the run
+            if (e instanceof VirtualMachineError && !(e instanceof StackOverflowError || e instanceof OutOfMemoryError)) {
+                throw (VirtualMachineError) e;
+            }
+            return new Result(job, e, System.currentTimeMillis() - t1);
+        }
+    }
+
+    public static class Job {
+        private final String parserName;
+        private final String inputFile;
+        private final List<String> outputterNames;
+        private final List<String> outputFiles;
+
+        public Job(String parserName, String outputterName, String inputFile, String outputFile) {
+            this(parserName, inputFile, Collections.singletonList(outputterName), Collections.singletonList(outputFile));
+        }
+
+        public Job(String parserName, String inputFile, List<String> outputterNames, List<String> outputFiles) {
+            if (outputterNames.isEmpty() || outputterNames.size() != outputFiles.size()) {
+                throw new IllegalArgumentException("Got " + outputterNames.size() + " outputters for " + outputFiles.size() + " output files");
+            }
+            this.parserName = parserName;
+            this.inputFile = inputFile;
+            this.outputterNames = Collections.unmodifiableList(new ArrayList<>(outputterNames));
+            this.outputFiles = Collections.unmodifiableList(new ArrayList<>(outputFiles));
+        }
+
+        public String getParserName() {
+            return parserName;
+        }
+
+        public String getInputFile() {
+            return inputFile;
+        }
+
+        public List<String> getOutputterNames() {
+            return outputterNames;
+        }
+
+        public List<String> getOutputFiles() {
+            return outputFiles;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder result = new StringBuilder(parserName).append(' ').append(inputFile);
+            for (int i = 0; i < outputterNames.size(); i++) {
+                result.append(' ').append(outputterNames.get(i)).append(' ').append(outputFiles.get(i));
+            }
+            return result.toString();
+        }
+    }
+
+    public static class Result {
+        private final Job job;
+        private final Throwable error;
+        private final long millis;
+
+        private Result(Job job, Throwable error, long millis) {
+            this.job = job;
+            this.error = error;
+            this.millis = millis;
+        }
+
+        public Job getJob() {
+            return job;
+        }
+
+        /**
+         * Returns the exception or the error the job failed with, or null if it succeeded.
+         */
+        public Throwable getError() {
+            return error;
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    public static class Summary {
+        private final List<Result> results;
+        private final long millis;
+
+        private Summary(List<Result> results, long millis) {
+            this.results = Collections.unmodifiableList(results);
+            this.millis = millis;
+        }
+
+        // in the order of the jobs
+        public List<Result> getResults() {
+            return results;
+        }
+
+        public int getSucceeded() {
+            int succeeded = 0;
+            for (Result result : results) {
+                if (result.getError() == null) {
+                    succeeded++;
+                }
+            }
+            return succeeded;
+        }
+
+        public int getFailed() {
+            return results.size() - getSucceeded();
+        }
+
+        public long getMillis() {
+            return millis;
+        }
+
+        public double getContestsPerSecond() {
+            return getSucceeded() * 1000.0 / Math.max(millis, 1);
+        }
+    }
+}
@@ -1,48 +1,92 @@
 package com.github.standingsconverter.main;
 
+import com.github.standingsconverter.outputter.BinaryOutputter;
 import com.github.standingsconverter.outputter.EjudgeOutputter;
+import com.github.standingsconverter.outputter.Outputter;
+import com.github.standingsconverter.outputter.ResolverOutputter;
+import com.github.standingsconverter.outputter.StandingsOutputter;
 import com.github.standingsconverter.outputter.TestsysOutputter;
 import com.github.standingsconverter.parser.*;
 
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
+/**
+ * Creates parsers and outputters by the simple names of their classes, with or without the "Parser" or "Outputter"
+ * suffix, ignoring the case. The built-in classes are looked up by name and created with {@code new} in a switch, so
+ * only the selected class is loaded, with the XML or JSON libraries it needs, and nothing is created by reflection.
+ * Other implementations are found by {@link ServiceLoader} in the {@code META-INF/services} files of the classpath.
+ * This instantiates all of them, so it is done only for the names which are not built in.
+ */
 public class ClassFactory {
-    private static final List<Class<?>> SUPPORTED_CLASSES = Collections.unmodifiableList(Arrays.asList(
-            CodeforcesAPIParser.class,
-            EjudgeParser.class,
-            PCMSParser.class,
-            TestsysParser.class,
-            YandexContestParser.class,
-            EjudgeOutputter.class,
-            TestsysOutputter.class
-    ));
+    private static final Map<Class<?>, List<String>> BUILT_IN_NAMES = new HashMap<>();
+
+    static {
+        BUILT_IN_NAMES.put(Parser.class, Arrays.asList(
+                "BinaryParser", "CodeforcesAPIParser", "EjudgeParser", "PCMSParser", "TestsysParser", "YandexContestParser"));
+        BUILT_IN_NAMES.put(Outputter.class, Arrays.asList(
+                "BinaryOutputter", "EjudgeOutputter", "ResolverOutputter", "StandingsOutputter", "TestsysOutputter"));
+    }
 
     private ClassFactory() {
     }
 
+    // the class is loaded when its case is executed for the first time
+    private static Object createBuiltIn(String name) {
+        switch (name) {
+            case "BinaryParser": return new BinaryParser();
+            case "CodeforcesAPIParser": return new CodeforcesAPIParser();
+            case "EjudgeParser": return new EjudgeParser();
+            case "PCMSParser": return new PCMSParser();
+            case "TestsysParser": return new TestsysParser();
+            case "YandexContestParser": return new YandexContestParser();
+            case "BinaryOutputter": return new BinaryOutputter();
+            case "EjudgeOutputter": return new EjudgeOutputter();
+            case "ResolverOutputter": return new ResolverOutputter();
+            case "StandingsOutputter": return new StandingsOutputter();
+            case "TestsysOutputter": return new TestsysOutputter();
+        }
+        throw new IllegalArgumentException("Unknown built-in class: " + name);
+    }
+
+    // the simple names of the built-in classes and the service providers implementing the interface
+    public static List<String> getNames(Class<?> iface) {
+        List<String> names = new ArrayList<>(BUILT_IN_NAMES.getOrDefault(iface, Collections.emptyList()));
+        for (Object provider : ServiceLoader.load(iface)) {
+            names.add(provider.getClass().getSimpleName());
+        }
+        return names;
+    }
+
     public static <T> T createInstance(Class<T> iface, String neededName) {
-        Class<?> neededClass = null;
-        for (Class<?> subclass : SUPPORTED_CLASSES) {
-            if (iface.isAssignableFrom(subclass)) {
-                String subclassName = subclass.getSimpleName();
-                if (subclassName.equalsIgnoreCase(neededName) || subclassName.equalsIgnoreCase(neededName + iface.getSimpleName())) {
-                    if (neededClass != null) {
-                        throw new IllegalArgumentException("Duplicate children classes found for interface = " + iface + ", name = " + neededName);
-                    }
-                    neededClass = subclass;
+        String builtInName = null;
+        for (String name : BUILT_IN_NAMES.getOrDefault(iface, Collections.emptyList())) {
+            if (name.equalsIgnoreCase(neededName) || name.equalsIgnoreCase(neededName + iface.getSimpleName())) {
+                if (builtInName != null) {
+                    throw new IllegalArgumentException("Duplicate children classes found for interface = " + iface + ", name = " + neededName);
                 }
+                builtInName = name;
             }
         }
-        if (neededClass == null) {
-            throw new IllegalArgumentException("No children classes found for interface = " + iface + ", name = " + neededName);
+        if (builtInName != null) {
+            return iface.cast(createBuiltIn(builtInName));
         }
-        try {
-            //noinspection unchecked
-            return (T) neededClass.newInstance();
-        } catch (InstantiationException | IllegalAccessException e) {
-            throw new RuntimeException(e);
+        return loadService(iface, neededName);
+    }
+
+    private static <T> T loadService(Class<T> iface, String neededName) {
+        T needed = null;
+        for (T provider : ServiceLoader.load(iface)) {
+            String providerName = provider.getClass().getSimpleName();
+            if (providerName.equalsIgnoreCase(neededName) || providerName.equalsIgnoreCase(neededName + iface.getSimpleName())) {
+                if (needed != null) {
+                    throw new IllegalArgumentException("Duplicate children classes found for interface = " + iface + ", name = " + neededName);
+                }
+                needed = provider;
+            }
+        }
+        if (needed == null) {
+            throw new IllegalArgumentException("No children classes found for interface = " + iface + ", name = " + neededName);
         }
+        return needed;
     }
 }
@@ -2,25 +2,151 @@ package com.github.standingsconverter.main;
 
 import com.github.standingsconverter.entity.Contest;
 import com.github.standingsconverter.outputter.Outputter;
+import com.github.standingsconverter.parser.CachingParser;
+import com.github.standingsconverter.parser.ContestCache;
+import com.github.standingsconverter.parser.IncrementalParser;
 import com.github.standingsconverter.parser.Parser;
+import com.github.standingsconverter.server.ConversionServer;
 
+import java.io.File;
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public class Main {
-    public static void main(String[] args) throws IOException {
-        if (args.length != 4) {
-            System.out.println("Usage: java -jar [jarFile] [parserClass] [outputterClass] [inputFile] [outputFile]");
+    private static final int SERVER_QUEUE_SIZE = 64;
+    private static final long SERVER_MAX_UPLOAD_BYTES = 256L << 20;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if ((args.length == 2 || args.length == 3) && args[0].equals("--batch")) {
+            int threads = args.length == 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            batch(args[1], threads);
+            return;
+        }
+        if (args.length >= 2 && args.length <= 5 && args[0].equals("--server")) {
+            int threads = args.length >= 3 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+            // only local clients by default, the server has no authentication
+            InetAddress bindAddress = args.length >= 4 ? InetAddress.getByName(args[3]) : InetAddress.getLoopbackAddress();
+            File inputDirectory = args.length == 5 ? new File(args[4]) : null;
+            ConversionServer server = new ConversionServer(new InetSocketAddress(bindAddress, Integer.parseInt(args[1])), inputDirectory,
+                    threads, SERVER_QUEUE_SIZE, SERVER_MAX_UPLOAD_BYTES, new ContestCache(ContestCache.DEFAULT_MAX_WEIGHT));
+            server.start();
+            System.out.printf("Listening on %s with %d threads\n", server.getAddress(), threads);
+            return;
+        }
+        long pollSeconds = 0;
+        if (args.length >= 6 && args[0].equals("--poll")) {
+            pollSeconds = Long.parseLong(args[1]);
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        boolean watch = false;
+        if (pollSeconds == 0 && args.length >= 5 && args[0].equals("--watch")) {
+            watch = true;
+            args = Arrays.copyOfRange(args, 1, args.length);
+        }
+        if (args.length < 4 || args.length % 2 != 0) {
+            System.out.println("Usage: java -jar [jarFile] [--poll seconds | --watch] [parserClass] [outputterClass] [inputFile] [outputFile] [[outputterClass] [outputFile]]...");
+            System.out.println("   or: java -jar [jarFile] --batch [manifestFile] [threads]");
+            System.out.println("   or: java -jar [jarFile] --server [port] [threads] [bindAddress] [inputDirectory]");
             return;
         }
         Parser parser = ClassFactory.createInstance(Parser.class, args[0]);
-        Outputter outputter = ClassFactory.createInstance(Outputter.class, args[1]);
         String inputFile = args[2];
-        String outputFile = args[3];
-        System.out.printf("Use parser = %s, outputter = %s\n", parser.getClass().getSimpleName(), outputter.getClass().getSimpleName());
+        List<Outputter> outputters = new ArrayList<>();
+        List<String> outputFiles = new ArrayList<>();
+        outputters.add(ClassFactory.createInstance(Outputter.class, args[1]));
+        outputFiles.add(args[3]);
+        for (int i = 4; i < args.length; i += 2) {
+            outputters.add(ClassFactory.createInstance(Outputter.class, args[i]));
+            outputFiles.add(args[i + 1]);
+        }
+        System.out.printf("Use parser = %s, outputters = %s\n", parser.getClass().getSimpleName(), getSimpleNames(outputters));
+        if ((pollSeconds > 0 || watch) && !(parser instanceof IncrementalParser)) {
+            // an update of an unchanged input doesn't parse it again, and only the latest version of the input is kept
+            parser = new CachingParser(parser, new ContestCache(Long.MAX_VALUE, 1), false);
+        }
+        if (pollSeconds > 0) {
+            poll(parser, outputters, inputFile, outputFiles, pollSeconds);
+            return;
+        }
+        if (watch) {
+            watch(parser, outputters, inputFile, outputFiles);
+            return;
+        }
         long t1 = System.currentTimeMillis();
         Contest contest = parser.parse(inputFile);
-        outputter.output(contest, outputFile);
+        ParallelOutputs.output(contest, outputters, outputFiles);
         long t2 = System.currentTimeMillis();
         System.out.printf("Parsing completed in %d ms.\n", t2 - t1);
     }
+
+    private static String getSimpleNames(List<Outputter> outputters) {
+        StringBuilder result = new StringBuilder();
+        for (Outputter outputter : outputters) {
+            if (result.length() > 0) {
+                result.append(", ");
+            }
+            result.append(outputter.getClass().getSimpleName());
+        }
+        return result.toString();
+    }
+
+    private static void batch(String manifestFile, int threads) throws IOException, InterruptedException {
+        List<BatchConverter.Job> jobs = BatchConverter.readManifest(manifestFile);
+        System.out.printf("Converting %d contests with %d threads\n", jobs.size(), threads);
+        BatchConverter.Summary summary = new BatchConverter(threads).run(jobs);
+        for (BatchConverter.Result result : summary.getResults()) {
+            if (result.getError() != null) {
+                System.out.printf("Failed %s: %s\n", result.getJob(), result.getError());
+            }
+        }
+        System.out.printf("Converted %d of %d contests in %d ms (%.2f contests/s).\n", summary.getSucceeded(),
+                summary.getResults().size(), summary.getMillis(), summary.getContestsPerSecond());
+    }
+
+    private static void poll(Parser parser, List<Outputter> outputters, String inputFile, List<String> outputFiles, long pollSeconds) throws InterruptedException {
+        while (true) {
+            update(parser, outputters, inputFile, outputFiles);
+            Thread.sleep(pollSeconds * 1000);
+        }
+    }
+
+    // updates the output whenever the input file is modified or created again
+    private static void watch(Parser parser, List<Outputter> outputters, String inputFile, List<String> outputFiles) throws IOException, InterruptedException {
+        Path path = Paths.get(inputFile).toAbsolutePath();
+        try (WatchService watchService = path.getFileSystem().newWatchService()) {
+            path.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+            update(parser, outputters, inputFile, outputFiles);
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW || path.getFileName().equals(event.context());
+                }
+                if (changed) {
+                    update(parser, outputters, inputFile, outputFiles);
+                }
+                if (!key.reset()) {
+                    throw new IOException("Can't watch " + path.getParent() + " any more");
+                }
+            }
+        }
+    }
+
+    private static void update(Parser parser, List<Outputter> outputters, String inputFile, List<String> outputFiles) {
+        long t1 = System.currentTimeMillis();
+        try {
+            Contest contest = parser instanceof IncrementalParser ? ((IncrementalParser) parser).update(inputFile) : parser.parse(inputFile);
+            ParallelOutputs.output(contest, outputters, outputFiles);
+            long t2 = System.currentTimeMillis();
+            System.out.printf("Updated %d submissions in %d ms.\n", contest.getSubmissions().size(), t2 - t1);
+        } catch (IOException | RuntimeException e) {
+            // the input may be unavailable or half-written for a moment during a live contest, the next update will retry
+            System.out.printf("Update failed: %s\n", e);
+        }
+    }
 }
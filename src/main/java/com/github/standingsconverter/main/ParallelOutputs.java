@@ -0,0 +1,111 @@
+package com.github.standingsconverter.main;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.outputter.Outputter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * Writes one parsed contest with several outputters at once. The outputters only read the contest, so they share it,
+ * and the whole output takes about as long as the slowest of them. Callers which already run on a bounded pool of
+ * threads use {@link #outputSequentially} instead, so the outputters don't add threads beyond the pool.
+ */
+public class ParallelOutputs {
+    private ParallelOutputs() {
+    }
+
+    /**
+     * Runs every outputter with the output file of the same index. The first one runs in the calling thread, the
+     * others in their own threads. All of them are completed before the first failure is thrown.
+     */
+    public static void output(Contest contest, List<Outputter> outputters, List<String> outputFiles) throws IOException {
+        checkSizes(outputters, outputFiles);
+        if (outputters.isEmpty()) {
+            return;
+        }
+        List<FutureTask<Void>> tasks = new ArrayList<>(outputters.size() - 1);
+        for (int i = 1; i < outputters.size(); i++) {
+            Outputter outputter = outputters.get(i);
+            String outputFile = outputFiles.get(i);
+            FutureTask<Void> task = new FutureTask<>(() -> {
+                outputter.output(contest, outputFile);
+                return null;
+            });
+            Thread thread = new Thread(task, "outputter-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            tasks.add(task);
+        }
+        Throwable failure = null;
+        try {
+            outputters.get(0).output(contest, outputFiles.get(0));
+        } catch (IOException | RuntimeException e) {
+            failure = e;
+        }
+        for (FutureTask<Void> task : tasks) {
+            try {
+                task.get();
+            } catch (InterruptedException e) {
+                for (FutureTask<Void> other : tasks) {
+                    other.cancel(true);
+                }
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for the outputters");
+            } catch (ExecutionException e) {
+                if (failure == null) {
+                    failure = e.getCause();
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            }
+        }
+        rethrow(failure);
+    }
+
+    /**
+     * Runs every outputter with the output file of the same index one by one in the calling thread. All of them are
+     * run before the first failure is thrown.
+     */
+    public static void outputSequentially(Contest contest, List<Outputter> outputters, List<String> outputFiles) throws IOException {
+        checkSizes(outputters, outputFiles);
+        Throwable failure = null;
+        for (int i = 0; i < outputters.size(); i++) {
+            try {
+                outputters.get(i).output(contest, outputFiles.get(i));
+            } catch (IOException | RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+        rethrow(failure);
+    }
+
+    private static void checkSizes(List<Outputter> outputters, List<String> outputFiles) {
+        if (outputters.size() != outputFiles.size()) {
+            throw new IllegalArgumentException("Got " + outputters.size() + " outputters for " + outputFiles.size() + " files");
+        }
+    }
+
+    private static void rethrow(Throwable failure) throws IOException {
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IOException(failure);
+        }
+    }
+}
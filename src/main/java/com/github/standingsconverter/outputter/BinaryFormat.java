@@ -0,0 +1,45 @@
+package com.github.standingsconverter.outputter;
+
+import com.github.standingsconverter.entity.Verdict;
+
+/**
+ * The constants of the binary snapshots shared by the BinaryOutputter and the BinaryParser, so both sides always
+ * agree on the header and on the verdict codes.
+ */
+public final class BinaryFormat {
+    public static final String MAGIC = "SCBS";
+    public static final int VERSION = 1;
+
+    // the codes of the verdicts are their indexes here, so new verdicts must be appended
+    private static final Verdict[] VERDICT_CODES = {
+            Verdict.ACCEPTED,
+            Verdict.REJECTED,
+            Verdict.WRONG_ANSWER,
+            Verdict.RUNTIME_ERROR,
+            Verdict.TIME_LIMIT_EXCEEDED,
+            Verdict.MEMORY_LIMIT_EXCEEDED,
+            Verdict.COMPILATION_ERROR,
+            Verdict.PRESENTATION_ERROR,
+            Verdict.IDLENESS_LIMIT_EXCEEDED,
+            Verdict.SECURITY_VIOLATION,
+    };
+    private static final byte[] CODES_BY_ORDINAL = new byte[Verdict.values().length];
+
+    static {
+        for (int code = 0; code < VERDICT_CODES.length; code++) {
+            CODES_BY_ORDINAL[VERDICT_CODES[code].ordinal()] = (byte) code;
+        }
+    }
+
+    private BinaryFormat() {
+    }
+
+    public static int getCode(Verdict verdict) {
+        return CODES_BY_ORDINAL[verdict.ordinal()];
+    }
+
+    // returns null for an unknown code
+    public static Verdict getVerdict(int code) {
+        return code >= 0 && code < VERDICT_CODES.length ? VERDICT_CODES[code] : null;
+    }
+}
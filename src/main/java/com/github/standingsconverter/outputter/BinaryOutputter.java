@@ -0,0 +1,105 @@
+package com.github.standingsconverter.outputter;
+
+import com.github.standingsconverter.entity.*;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Writes a contest as a compact binary snapshot which the BinaryParser loads back without any text parsing.
+ * <p>
+ * The file starts with the magic bytes "SCBS" and the format version. All numbers are unsigned LEB128 varints, and
+ * signed ones are zigzag-encoded first. Strings are kept once in a table of UTF-8 strings, and the contest name, the
+ * problem names and the team names are indexes in it. The submissions follow column by column: ids and times as
+ * differences from the previous row, team and problem indexes, attempts, and then the verdicts as 4-bit codes, two
+ * in a byte. The last 4 bytes are the big-endian CRC32 of everything before them.
+ */
+public class BinaryOutputter implements Outputter {
+    private static final byte[] MAGIC = ByteWriter.ascii(BinaryFormat.MAGIC);
+
+    @Override
+    public void output(Contest contest, String outputFile) throws IOException {
+        SubmissionTable submissions = contest.getSubmissionTable();
+        // the table's own lists, since the indexes in it refer to them
+        List<Problem> problems = submissions.getProblems();
+        List<Team> teams = submissions.getTeams();
+        Map<String, Integer> stringIndexes = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+        int nameIndex = addString(contest.getName(), stringIndexes, strings);
+        int[] problemNameIndexes = new int[problems.size()];
+        for (int i = 0; i < problems.size(); i++) {
+            problemNameIndexes[i] = addString(problems.get(i).getName(), stringIndexes, strings);
+        }
+        int[] teamNameIndexes = new int[teams.size()];
+        for (int i = 0; i < teams.size(); i++) {
+            teamNameIndexes[i] = addString(teams.get(i).getName(), stringIndexes, strings);
+        }
+        CRC32 checksum = new CRC32();
+        try (ByteWriter writer = new ByteWriter(new CheckedOutputStream(new FileOutputStream(outputFile), checksum))) {
+            writer.write(MAGIC).writeVarLong(BinaryFormat.VERSION);
+            writer.writeVarLong(strings.size());
+            for (String s : strings) {
+                byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+                writer.writeVarLong(bytes.length).write(bytes);
+            }
+            writer.writeVarLong(nameIndex).writeVarLong(zigzag(contest.getDuration()));
+            writer.writeVarLong(problems.size());
+            for (int i = 0; i < problems.size(); i++) {
+                writer.writeVarLong(problems.get(i).getId()).writeVarLong(problemNameIndexes[i]);
+            }
+            writer.writeVarLong(teams.size());
+            for (int i = 0; i < teams.size(); i++) {
+                writer.writeVarLong(zigzag(teams.get(i).getId())).writeVarLong(teamNameIndexes[i]);
+            }
+            int size = submissions.size();
+            writer.writeVarLong(size);
+            long previousId = 0;
+            for (int row = 0; row < size; row++) {
+                writer.writeVarLong(zigzag(submissions.getId(row) - previousId));
+                previousId = submissions.getId(row);
+            }
+            for (int row = 0; row < size; row++) {
+                writer.writeVarLong(submissions.getTeamIndex(row));
+            }
+            for (int row = 0; row < size; row++) {
+                writer.writeVarLong(submissions.getProblemIndex(row));
+            }
+            for (int row = 0; row < size; row++) {
+                writer.writeVarLong(zigzag(submissions.getAttempt(row)));
+            }
+            long previousTime = 0;
+            for (int row = 0; row < size; row++) {
+                writer.writeVarLong(zigzag(submissions.getTime(row) - previousTime));
+                previousTime = submissions.getTime(row);
+            }
+            for (int row = 0; row < size; row += 2) {
+                int packed = BinaryFormat.getCode(submissions.getVerdict(row));
+                if (row + 1 < size) {
+                    packed |= BinaryFormat.getCode(submissions.getVerdict(row + 1)) << 4;
+                }
+                writer.write((byte) packed);
+            }
+            writer.flush();
+            int crc = (int) checksum.getValue();
+            writer.write((byte) (crc >>> 24)).write((byte) (crc >>> 16)).write((byte) (crc >>> 8)).write((byte) crc);
+        }
+    }
+
+    private static int addString(String s, Map<String, Integer> stringIndexes, List<String> strings) {
+        Integer index = stringIndexes.get(s);
+        if (index == null) {
+            index = strings.size();
+            strings.add(s);
+            stringIndexes.put(s, index);
+        }
+        return index;
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+}
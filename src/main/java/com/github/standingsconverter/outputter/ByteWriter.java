@@ -0,0 +1,156 @@
+package com.github.standingsconverter.outputter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes text as UTF-8 straight into a reusable byte buffer. Numbers and characters are encoded by hand, so writing
+ * them doesn't allocate anything. Binary formats use the same buffer through {@link #writeVarLong(long)}.
+ */
+class ByteWriter implements Closeable {
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final byte[] LINE_SEPARATOR = ascii(System.lineSeparator());
+
+    private final OutputStream outputStream;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+
+    ByteWriter(OutputStream outputStream) {
+        this.outputStream = outputStream;
+    }
+
+    static byte[] ascii(String s) {
+        byte[] bytes = new byte[s.length()];
+        for (int i = 0; i < s.length(); i++) {
+            bytes[i] = (byte) s.charAt(i);
+        }
+        return bytes;
+    }
+
+    ByteWriter write(byte b) throws IOException {
+        if (position == buffer.length) {
+            flushBuffer();
+        }
+        buffer[position++] = b;
+        return this;
+    }
+
+    ByteWriter write(byte[] bytes) throws IOException {
+        if (bytes.length > buffer.length - position) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                outputStream.write(bytes);
+                return this;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        return this;
+    }
+
+    ByteWriter write(long value) throws IOException {
+        if (buffer.length - position < 20) {
+            flushBuffer();
+        }
+        if (value < 0) {
+            buffer[position++] = '-';
+            if (value == Long.MIN_VALUE) {
+                // the magnitude doesn't fit into long, so the last digit is written separately
+                writeDigits(-(value / 10));
+                buffer[position++] = (byte) ('0' - value % 10);
+                return this;
+            }
+            value = -value;
+        }
+        writeDigits(value);
+        return this;
+    }
+
+    private void writeDigits(long value) {
+        int length = 1;
+        for (long rest = value / 10; rest > 0; rest /= 10) {
+            length++;
+        }
+        for (int i = position + length - 1; i >= position; i--) {
+            buffer[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        position += length;
+    }
+
+    ByteWriter write(char c) throws IOException {
+        if (buffer.length - position < 3) {
+            flushBuffer();
+        }
+        if (c < 0x80) {
+            buffer[position++] = (byte) c;
+        } else if (c < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (c >> 6));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            buffer[position++] = '?'; // unpaired surrogate, replaced like the JDK encoder does
+        } else {
+            buffer[position++] = (byte) (0xE0 | (c >> 12));
+            buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return this;
+    }
+
+    ByteWriter write(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, s.charAt(++i));
+                if (buffer.length - position < 4) {
+                    flushBuffer();
+                }
+                buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+            } else {
+                write(c);
+            }
+        }
+        return this;
+    }
+
+    // unsigned LEB128: seven bits per byte, the lowest first, the high bit set on all bytes except the last
+    ByteWriter writeVarLong(long value) throws IOException {
+        if (buffer.length - position < 10) {
+            flushBuffer();
+        }
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    ByteWriter newLine() throws IOException {
+        return write(LINE_SEPARATOR);
+    }
+
+    // writes the buffered bytes to the stream, e.g. to take a checksum of everything written so far
+    void flush() throws IOException {
+        flushBuffer();
+        outputStream.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        outputStream.write(buffer, 0, position);
+        position = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            outputStream.close();
+        }
+    }
+}
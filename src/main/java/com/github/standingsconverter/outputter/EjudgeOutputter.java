@@ -1,73 +1,151 @@
 package com.github.standingsconverter.outputter;
 
 import com.github.standingsconverter.entity.*;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.OutputKeys;
-import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.stream.StreamResult;
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
 
 public class EjudgeOutputter implements Outputter {
+    // in seconds before the end of the contest
+    public static final long FOG_TIME = 3600;
+    private static final String INDENT = "    ";
+
+    private final boolean indent;
+
+    public EjudgeOutputter() {
+        this(true);
+    }
+
+    public EjudgeOutputter(boolean indent) {
+        this.indent = indent;
+    }
+
     @Override
     public void output(Contest contest, String outputFile) throws IOException {
-        try {
-            DocumentBuilder builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            Document document = builder.newDocument();
-            Element runLogElement = document.createElement("runlog");
-            runLogElement.setAttribute("duration", Long.toString(contest.getDuration() * 60));
-            runLogElement.setAttribute("fog_time", "3600"); // needed for unfreezing by OSt's script
-            document.appendChild(runLogElement);
-            Element contestNameElement = document.createElement("name");
-            contestNameElement.setTextContent(contest.getName());
-            runLogElement.appendChild(contestNameElement);
-            Element usersElement = document.createElement("users");
-            runLogElement.appendChild(usersElement);
-            for (Team team : contest.getTeams()) {
-                Element userElement = document.createElement("user");
-                userElement.setAttribute("id", Integer.toString(team.getId()));
-                userElement.setAttribute("name", team.getName());
-                usersElement.appendChild(userElement);
+        // the output repeats what the DOM Transformer used to produce byte by byte: attributes in alphabetical order,
+        // empty elements collapsed and the same character escaping
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(outputFile), StandardCharsets.UTF_8))) {
+            writer.write("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>");
+            newLine(writer, 0);
+            writer.write("<runlog");
+            writeAttribute(writer, "duration", Long.toString(contest.getDuration() * 60));
+            // needed for unfreezing by OSt's script
+            writeAttribute(writer, "fog_time", Long.toString(FOG_TIME));
+            writer.write('>');
+            newLine(writer, 1);
+            writer.write("<name>");
+            writeEscaped(writer, contest.getName(), false);
+            writer.write("</name>");
+            newLine(writer, 1);
+            if (contest.getTeams().isEmpty()) {
+                writer.write("<users/>");
+            } else {
+                writer.write("<users>");
+                for (Team team : contest.getTeams()) {
+                    newLine(writer, 2);
+                    writer.write("<user");
+                    writeAttribute(writer, "id", Integer.toString(team.getId()));
+                    writeAttribute(writer, "name", team.getName());
+                    writer.write("/>");
+                }
+                newLine(writer, 1);
+                writer.write("</users>");
             }
-            Element problemsElement = document.createElement("problems");
-            runLogElement.appendChild(problemsElement);
-            for (Problem problem : contest.getProblems()) {
-                Element problemElement = document.createElement("problem");
-                problemElement.setAttribute("id", Integer.toString(problem.getId() - 'A' + 1));
-                problemElement.setAttribute("short_name", Character.toString(problem.getId()));
-                problemElement.setAttribute("long_name", problem.getName());
-                problemsElement.appendChild(problemElement);
+            newLine(writer, 1);
+            if (contest.getProblems().isEmpty()) {
+                writer.write("<problems/>");
+            } else {
+                writer.write("<problems>");
+                for (Problem problem : contest.getProblems()) {
+                    newLine(writer, 2);
+                    writer.write("<problem");
+                    writeAttribute(writer, "id", Integer.toString(problem.getId() - 'A' + 1));
+                    writeAttribute(writer, "long_name", problem.getName());
+                    writeAttribute(writer, "short_name", Character.toString(problem.getId()));
+                    writer.write("/>");
+                }
+                newLine(writer, 1);
+                writer.write("</problems>");
             }
-            Element runsElement = document.createElement("runs");
-            runLogElement.appendChild(runsElement);
-            int runID = 0;
-            for (Submission submission : contest.getSubmissions()) {
-                Element runElement = document.createElement("run");
-                runElement.setAttribute("run_id", Integer.toString(runID++));
-                runElement.setAttribute("time", Long.toString(submission.getTime()));
-                runElement.setAttribute("status", toString(submission.getVerdict()));
-                runElement.setAttribute("user_id", Integer.toString(submission.getTeam().getId()));
-                runElement.setAttribute("prob_id", Integer.toString(submission.getProblem().getId() - 'A' + 1));
-                runsElement.appendChild(runElement);
+            newLine(writer, 1);
+            SubmissionTable submissions = contest.getSubmissionTable();
+            if (submissions.size() == 0) {
+                writer.write("<runs/>");
+            } else {
+                writer.write("<runs>");
+                int runID = 0;
+                SubmissionTable.Cursor submission = submissions.cursor();
+                while (submission.next()) {
+                    newLine(writer, 2);
+                    writer.write("<run prob_id=\"");
+                    writer.write(Integer.toString(submission.getProblem().getId() - 'A' + 1));
+                    writer.write("\" run_id=\"");
+                    writer.write(Integer.toString(runID++));
+                    writer.write("\" status=\"");
+                    writer.write(toString(submission.getVerdict()));
+                    writer.write("\" time=\"");
+                    writer.write(Long.toString(submission.getTime()));
+                    writer.write("\" user_id=\"");
+                    writer.write(Integer.toString(submission.getTeam().getId()));
+                    writer.write("\"/>");
+                }
+                newLine(writer, 1);
+                writer.write("</runs>");
+            }
+            newLine(writer, 0);
+            writer.write("</runlog>");
+            newLine(writer, -1);
+        }
+    }
+
+    private void newLine(Writer writer, int level) throws IOException {
+        if (!indent) {
+            return;
+        }
+        writer.write(System.lineSeparator());
+        for (int i = 0; i < level; i++) {
+            writer.write(INDENT);
+        }
+    }
+
+    private static void writeAttribute(Writer writer, String name, String value) throws IOException {
+        writer.write(' ');
+        writer.write(name);
+        writer.write("=\"");
+        writeEscaped(writer, value, true);
+        writer.write('"');
+    }
+
+    private static void writeEscaped(Writer writer, String s, boolean attribute) throws IOException {
+        int start = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            String replacement;
+            int length = 1;
+            if (c == '&') {
+                replacement = "&amp;";
+            } else if (c == '<') {
+                replacement = "&lt;";
+            } else if (c == '>') {
+                replacement = "&gt;";
+            } else if (c == '"' && attribute) {
+                replacement = "&quot;";
+            } else if ((c == '\n' || c == '\t') && !attribute) {
+                continue;
+            } else if (c < 0x20 || (!attribute && c >= 0x7F && c <= 0x9F)) {
+                replacement = "&#" + (int) c + ";";
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                replacement = "&#" + Character.toCodePoint(c, s.charAt(i + 1)) + ";";
+                length = 2;
+            } else {
+                continue;
             }
-            TransformerFactory transformerFactory = TransformerFactory.newInstance();
-            Transformer transformer = transformerFactory.newTransformer();
-            transformer.setOutputProperty(OutputKeys.INDENT, "yes");
-            transformer.setOutputProperty("{http://xml.apache.org/xalan}indent-amount", "4");
-            DOMSource source = new DOMSource(document);
-            StreamResult stream = new StreamResult(new File(outputFile));
-            transformer.transform(source, stream);
-        } catch (TransformerException | ParserConfigurationException e) {
-            throw new IOException(e);
+            writer.write(s, start, i - start);
+            writer.write(replacement);
+            i += length - 1;
+            start = i + 1;
         }
+        writer.write(s, start, s.length() - start);
     }
 
     private String toString(Verdict verdict) {
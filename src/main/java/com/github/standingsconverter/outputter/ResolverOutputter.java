@@ -0,0 +1,48 @@
+package com.github.standingsconverter.outputter;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.standings.Resolver;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes the steps of unfreezing the standings as CSV, one revealed problem of a team per line: the team, the
+ * problem, the number of revealed runs, whether the problem got solved, the rank before and after the step, and the
+ * solved problems and the penalty after it.
+ */
+public class ResolverOutputter implements Outputter {
+    private static final byte[] HEADER = ByteWriter.ascii("Team,Problem,Runs,Solved,RankBefore,RankAfter,SolvedAfter,PenaltyAfter");
+    private static final byte[] YES = ByteWriter.ascii(",yes,");
+    private static final byte[] NO = ByteWriter.ascii(",no,");
+
+    private final long fogTime;
+
+    public ResolverOutputter() {
+        this(Resolver.DEFAULT_FOG_TIME);
+    }
+
+    // in seconds before the end of the contest
+    public ResolverOutputter(long fogTime) {
+        this.fogTime = fogTime;
+    }
+
+    @Override
+    public void output(Contest contest, String outputFile) throws IOException {
+        Resolver resolver = Resolver.withFogTime(contest, fogTime);
+        try (ByteWriter writer = new ByteWriter(new FileOutputStream(outputFile))) {
+            writer.write(HEADER).newLine();
+            while (resolver.hasNext()) {
+                Resolver.Step step = resolver.next();
+                writer.write((byte) '"').write(step.getTeam().getName().replace("\"", "\"\"")).write((byte) '"')
+                        .write((byte) ',').write(step.getProblem().getId())
+                        .write((byte) ',').write(step.getRuns())
+                        .write(step.isSolved() ? YES : NO).write(step.getRankBefore())
+                        .write((byte) ',').write(step.getRankAfter())
+                        .write((byte) ',').write(step.getSolved())
+                        .write((byte) ',').write(step.getPenalty())
+                        .newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.github.standingsconverter.outputter;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.entity.Problem;
+import com.github.standingsconverter.standings.StandingsEngine;
+import com.github.standingsconverter.standings.StandingsSnapshot;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Writes the final ICPC standings as CSV: rank, team, solved problems, penalty and a column per problem. A solved
+ * problem is "+" with the number of rejected attempts and the time as h:mm, marked with "*" for the first team to
+ * solve it, e.g. "+2 1:05*". An unsolved one is "-" with the number of rejected attempts, or empty.
+ */
+public class StandingsOutputter implements Outputter {
+    private static final byte[] HEADER = ByteWriter.ascii("Rank,Team,Solved,Penalty");
+
+    @Override
+    public void output(Contest contest, String outputFile) throws IOException {
+        StandingsSnapshot standings = StandingsEngine.of(contest).snapshot();
+        List<Problem> problems = standings.getProblems();
+        try (ByteWriter writer = new ByteWriter(new FileOutputStream(outputFile))) {
+            writer.write(HEADER);
+            for (Problem problem : problems) {
+                writer.write((byte) ',').write(problem.getId());
+            }
+            writer.newLine();
+            for (StandingsSnapshot.Row row : standings.getRows()) {
+                writer.write(row.getRank()).write((byte) ',').write((byte) '"')
+                        .write(row.getTeam().getName().replace("\"", "\"\"")).write((byte) '"')
+                        .write((byte) ',').write(row.getSolved())
+                        .write((byte) ',').write(row.getPenalty());
+                for (int problem = 0; problem < problems.size(); problem++) {
+                    writer.write((byte) ',');
+                    int rejectedAttempts = row.getRejectedAttempts(problem);
+                    if (row.isSolved(problem)) {
+                        writer.write((byte) '+');
+                        if (rejectedAttempts > 0) {
+                            writer.write(rejectedAttempts);
+                        }
+                        long minutes = row.getSolveTime(problem) / 60;
+                        writer.write((byte) ' ').write(minutes / 60).write((byte) ':')
+                                .write((char) ('0' + minutes % 60 / 10)).write((char) ('0' + minutes % 10));
+                        if (row.isFirstToSolve(problem)) {
+                            writer.write((byte) '*');
+                        }
+                    } else if (rejectedAttempts > 0) {
+                        writer.write((byte) '-').write(rejectedAttempts);
+                    }
+                }
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -2,53 +2,60 @@ package com.github.standingsconverter.outputter;
 
 import com.github.standingsconverter.entity.*;
 
-import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.PrintWriter;
 import java.util.List;
 
 public class TestsysOutputter implements Outputter {
+    private static final byte[][] VERDICT_CODES = new byte[Verdict.values().length][];
+
+    static {
+        for (Verdict verdict : Verdict.values()) {
+            VERDICT_CODES[verdict.ordinal()] = ByteWriter.ascii(toString(verdict));
+        }
+    }
+
+    private static final byte[] CONTEST = ByteWriter.ascii("@contest \"");
+    private static final byte[] CONTLEN = ByteWriter.ascii("@contlen ");
+    private static final byte[] PROBLEMS = ByteWriter.ascii("@problems ");
+    private static final byte[] TEAMS = ByteWriter.ascii("@teams ");
+    private static final byte[] SUBMISSIONS = ByteWriter.ascii("@submissions ");
+    private static final byte[] PROBLEM = ByteWriter.ascii("@p ");
+    private static final byte[] PROBLEM_SUFFIX = ByteWriter.ascii(",20,0");
+    private static final byte[] TEAM = ByteWriter.ascii("@t ");
+    private static final byte[] TEAM_INFIX = ByteWriter.ascii(",0,1,\"");
+    private static final byte[] SUBMISSION = ByteWriter.ascii("@s ");
+
     @Override
     public void output(Contest contest, String outputFile) throws IOException {
         List<Problem> problems = contest.getProblems();
         List<Team> teams = contest.getTeams();
-        List<Submission> submissions = contest.getSubmissions();
-        try (PrintWriter writer = new PrintWriter(new File(outputFile), "UTF-8")) {
-            writer.println((char) 0x1A);
-            writer.printf("@contest \"%s\"", contest.getName());
-            writer.println();
-            writer.printf("@contlen %d", contest.getDuration());
-            writer.println();
-            writer.printf("@problems %d", problems.size());
-            writer.println();
-            writer.printf("@teams %d", teams.size());
-            writer.println();
-            writer.printf("@submissions %d", submissions.size());
-            writer.println();
+        SubmissionTable submissions = contest.getSubmissionTable();
+        try (ByteWriter writer = new ByteWriter(new FileOutputStream(outputFile))) {
+            writer.write((byte) 0x1A).newLine();
+            writer.write(CONTEST).write(contest.getName()).write((byte) '"').newLine();
+            writer.write(CONTLEN).write(contest.getDuration()).newLine();
+            writer.write(PROBLEMS).write(problems.size()).newLine();
+            writer.write(TEAMS).write(teams.size()).newLine();
+            writer.write(SUBMISSIONS).write(submissions.size()).newLine();
             for (Problem problem : problems) {
-                writer.println(toString(problem));
+                writer.write(PROBLEM).write(problem.getId()).write((byte) ',').write(problem.getName()).write(PROBLEM_SUFFIX).newLine();
             }
             for (Team team : teams) {
-                writer.println(toString(team));
+                writer.write(TEAM).write(team.getId()).write(TEAM_INFIX).write(team.getName()).write((byte) '"').newLine();
             }
-            for (Submission submission : submissions) {
-                writer.println(toString(submission));
+            SubmissionTable.Cursor submission = submissions.cursor();
+            while (submission.next()) {
+                writer.write(SUBMISSION).write(submission.getTeam().getId())
+                        .write((byte) ',').write(submission.getProblem().getId())
+                        .write((byte) ',').write(submission.getAttempt())
+                        .write((byte) ',').write(submission.getTime())
+                        .write((byte) ',').write(VERDICT_CODES[submission.getVerdict().ordinal()])
+                        .newLine();
             }
         }
     }
 
-    private static String toString(Problem problem) {
-        return String.format("@p %c,%s,20,0", problem.getId(), problem.getName());
-    }
-
-    private static String toString(Team team) {
-        return String.format("@t %d,0,1,\"%s\"", team.getId(), team.getName());
-    }
-
-    private static String toString(Submission submission) {
-        return String.format("@s %d,%c,%d,%d,%s", submission.getTeam().getId(), submission.getProblem().getId(), submission.getAttempt(), submission.getTime(), toString(submission.getVerdict()));
-    }
-
     private static String toString(Verdict verdict) {
         // TODO seems that CF doesn't support IL and SV, they are replaced with TL and RT
         switch (verdict) {
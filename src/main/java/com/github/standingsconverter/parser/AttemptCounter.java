@@ -0,0 +1,99 @@
+package com.github.standingsconverter.parser;
+
+/**
+ * Numbers the attempts of every team on every problem. Small non-negative team and problem ids are counted in a dense
+ * table which grows with them, the others go to an open-addressing map with primitive keys, so counting an attempt
+ * doesn't allocate anything once the storage has grown to the contest size.
+ */
+class AttemptCounter {
+    private static final int MAX_DENSE_SIZE = 1 << 22;
+    private static final int INITIAL_SPARSE_CAPACITY = 16;
+
+    private int[] dense = new int[0];
+    private int denseTeams = 0;
+    private int denseProblems = 0;
+    private long[] sparseKeys = new long[INITIAL_SPARSE_CAPACITY];
+    private int[] sparseValues = new int[INITIAL_SPARSE_CAPACITY]; // 0 marks a free slot
+    private int sparseSize = 0;
+
+    /**
+     * Returns the number of the next attempt of the team on the problem, starting from 1.
+     */
+    int next(int teamId, int problemId) {
+        if (teamId >= 0 && problemId >= 0 && fitsDense(teamId, problemId)) {
+            if (teamId >= denseTeams || problemId >= denseProblems) {
+                growDense(teamId, problemId);
+            }
+            return ++dense[teamId * denseProblems + problemId];
+        }
+        return nextSparse(((long) teamId << 32) | (problemId & 0xFFFFFFFFL));
+    }
+
+    private boolean fitsDense(int teamId, int problemId) {
+        if (teamId < denseTeams && problemId < denseProblems) {
+            return true;
+        }
+        long teams = Math.max(denseTeams, (long) teamId + 1);
+        long problems = Math.max(denseProblems, (long) problemId + 1);
+        return teams * problems <= MAX_DENSE_SIZE;
+    }
+
+    private void growDense(int teamId, int problemId) {
+        int problems = Math.max(denseProblems, problemId + 1);
+        // the teams usually go one by one, so reserve some rows to grow less often
+        long teams = Math.max(denseTeams, teamId + 1);
+        teams = Math.min(Math.max(teams, (long) denseTeams * 2), MAX_DENSE_SIZE / problems);
+        int[] table = new int[(int) teams * problems];
+        if (problems == denseProblems) {
+            System.arraycopy(dense, 0, table, 0, dense.length);
+        } else {
+            for (int team = 0; team < denseTeams; team++) {
+                System.arraycopy(dense, team * denseProblems, table, team * problems, denseProblems);
+            }
+        }
+        dense = table;
+        denseTeams = (int) teams;
+        denseProblems = problems;
+    }
+
+    private int nextSparse(long key) {
+        int mask = sparseKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (sparseValues[slot] != 0) {
+            if (sparseKeys[slot] == key) {
+                return ++sparseValues[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        sparseKeys[slot] = key;
+        sparseValues[slot] = 1;
+        if (++sparseSize * 2 > sparseKeys.length) {
+            rehash(sparseKeys.length * 2);
+        }
+        return 1;
+    }
+
+    private void rehash(int capacity) {
+        long[] keys = sparseKeys;
+        int[] values = sparseValues;
+        sparseKeys = new long[capacity];
+        sparseValues = new int[capacity];
+        int mask = capacity - 1;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] == 0) {
+                continue;
+            }
+            int slot = hash(keys[i]) & mask;
+            while (sparseValues[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            sparseKeys[slot] = keys[i];
+            sparseValues[slot] = values[i];
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,188 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.*;
+import com.github.standingsconverter.outputter.BinaryFormat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Loads the binary snapshots written by the BinaryOutputter, see the format there and the shared constants in
+ * {@link BinaryFormat}. The whole file is read into memory, its checksum is verified, and the submission columns are
+ * decoded straight into a {@link SubmissionTable}.
+ */
+public class BinaryParser implements Parser {
+    private static final byte[] MAGIC = BinaryFormat.MAGIC.getBytes(StandardCharsets.US_ASCII);
+
+    @Override
+    public Contest parse(String inputFile) throws IOException {
+        byte[] bytes = Files.readAllBytes(Paths.get(inputFile));
+        if (bytes.length < MAGIC.length + 4) {
+            throw new IOException("File " + inputFile + " is too short for a binary snapshot");
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (bytes[i] != MAGIC[i]) {
+                throw new IOException("File " + inputFile + " is not a binary snapshot");
+            }
+        }
+        int end = bytes.length - 4;
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes, 0, end);
+        int expectedCrc = ((bytes[end] & 0xFF) << 24) | ((bytes[end + 1] & 0xFF) << 16) | ((bytes[end + 2] & 0xFF) << 8) | (bytes[end + 3] & 0xFF);
+        if ((int) checksum.getValue() != expectedCrc) {
+            throw new IOException("Checksum mismatch in binary snapshot " + inputFile);
+        }
+        Reader reader = new Reader(bytes, MAGIC.length, end);
+        int version = reader.readInt();
+        if (version != BinaryFormat.VERSION) {
+            throw new IOException("Unsupported binary snapshot version: " + version);
+        }
+        String[] strings = new String[reader.readCount()];
+        for (int i = 0; i < strings.length; i++) {
+            strings[i] = reader.readString();
+        }
+        String name = strings[reader.readIndex(strings.length)];
+        long duration = unzigzag(reader.readVarLong());
+        int problemCount = reader.readCount();
+        List<Problem> problems = new ArrayList<>(problemCount);
+        for (int i = 0; i < problemCount; i++) {
+            char id = (char) reader.readIndex(Character.MAX_VALUE + 1);
+            problems.add(new Problem(id, strings[reader.readIndex(strings.length)]));
+        }
+        int teamCount = reader.readCount();
+        List<Team> teams = new ArrayList<>(teamCount);
+        for (int i = 0; i < teamCount; i++) {
+            int id = (int) unzigzag(reader.readVarLong());
+            teams.add(new Team(id, strings[reader.readIndex(strings.length)]));
+        }
+        // the columns are decoded right into the arrays of the table
+        int size = reader.readCount();
+        int[] ids = new int[size];
+        long previousId = 0;
+        for (int row = 0; row < size; row++) {
+            previousId += unzigzag(reader.readVarLong());
+            ids[row] = (int) previousId;
+        }
+        int[] teamIndexes = new int[size];
+        for (int row = 0; row < size; row++) {
+            teamIndexes[row] = reader.readIndex(teamCount);
+        }
+        char[] problemIndexes = new char[size];
+        for (int row = 0; row < size; row++) {
+            problemIndexes[row] = (char) reader.readIndex(problemCount);
+        }
+        int[] attempts = new int[size];
+        for (int row = 0; row < size; row++) {
+            attempts[row] = (int) unzigzag(reader.readVarLong());
+        }
+        long[] times = new long[size];
+        long previousTime = 0;
+        for (int row = 0; row < size; row++) {
+            previousTime += unzigzag(reader.readVarLong());
+            times[row] = previousTime;
+        }
+        byte[] verdicts = new byte[size];
+        for (int row = 0; row < size; row += 2) {
+            int packed = reader.readByte();
+            verdicts[row] = toOrdinal(packed & 0x0F, inputFile);
+            if (row + 1 < size) {
+                verdicts[row + 1] = toOrdinal(packed >>> 4, inputFile);
+            }
+        }
+        if (!reader.atEnd()) {
+            throw new IOException("Unexpected data after the submissions in binary snapshot " + inputFile);
+        }
+        SubmissionTable submissions = new SubmissionTable(teams, problems, ids, teamIndexes, problemIndexes, attempts, times, verdicts);
+        return new Contest(name, duration, problems, teams, submissions);
+    }
+
+    private static byte toOrdinal(int code, String inputFile) throws IOException {
+        Verdict verdict = BinaryFormat.getVerdict(code);
+        if (verdict == null) {
+            throw new IOException("Unknown verdict code " + code + " in binary snapshot " + inputFile);
+        }
+        return (byte) verdict.ordinal();
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static class Reader {
+        private final byte[] bytes;
+        private final int end;
+        private int position;
+
+        private Reader(byte[] bytes, int position, int end) {
+            this.bytes = bytes;
+            this.position = position;
+            this.end = end;
+        }
+
+        private long readVarLong() throws IOException {
+            if (position < end && bytes[position] >= 0) {
+                return bytes[position++];
+            }
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                if (position == end) {
+                    throw new IOException("Unexpected end of binary snapshot");
+                }
+                byte b = bytes[position++];
+                result |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return result;
+                }
+            }
+            throw new IOException("Malformed varint at offset " + position);
+        }
+
+        private int readInt() throws IOException {
+            long value = readVarLong();
+            if (value > Integer.MAX_VALUE || value < 0) {
+                throw new IOException("Value " + value + " at offset " + position + " is too large");
+            }
+            return (int) value;
+        }
+
+        // every counted element takes at least a byte, so a larger count can only come from a damaged file
+        private int readCount() throws IOException {
+            int count = readInt();
+            if (count > end - position) {
+                throw new IOException("Count " + count + " at offset " + position + " exceeds the file size");
+            }
+            return count;
+        }
+
+        private int readIndex(int bound) throws IOException {
+            int index = readInt();
+            if (index >= bound) {
+                throw new IOException("Index " + index + " at offset " + position + " is out of range " + bound);
+            }
+            return index;
+        }
+
+        private String readString() throws IOException {
+            int length = readCount();
+            String s = new String(bytes, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return s;
+        }
+
+        private int readByte() throws IOException {
+            if (position == end) {
+                throw new IOException("Unexpected end of binary snapshot");
+            }
+            return bytes[position++] & 0xFF;
+        }
+
+        private boolean atEnd() {
+            return position == end;
+        }
+    }
+}
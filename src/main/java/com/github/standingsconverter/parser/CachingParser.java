@@ -0,0 +1,55 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.Contest;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * Takes the contests from a cache instead of parsing the same file again. A file is identified by its path, size and
+ * modification time. These miss a rewrite which keeps the size within the precision of the modification time, so the
+ * CRC32 of the content can be added to the key at the cost of reading the file on every call.
+ */
+public class CachingParser implements Parser {
+    private final Parser parser;
+    private final ContestCache cache;
+    private final boolean hashContent;
+
+    public CachingParser(Parser parser, ContestCache cache, boolean hashContent) {
+        this.parser = parser;
+        this.cache = cache;
+        this.hashContent = hashContent;
+    }
+
+    @Override
+    public Contest parse(String filename) throws IOException {
+        String key = getKey(filename);
+        Contest contest = cache.get(key);
+        if (contest == null) {
+            contest = parser.parse(filename);
+            cache.put(key, contest);
+        }
+        return contest;
+    }
+
+    private String getKey(String filename) throws IOException {
+        File file = new File(filename).getCanonicalFile();
+        StringBuilder key = new StringBuilder(parser.getClass().getName()).append(':').append(file.getPath())
+                .append(':').append(file.length()).append(':').append(file.lastModified());
+        if (hashContent) {
+            CRC32 crc = new CRC32();
+            try (InputStream inputStream = new FileInputStream(file)) {
+                byte[] buffer = new byte[1 << 16];
+                int count;
+                while ((count = inputStream.read(buffer)) >= 0) {
+                    crc.update(buffer, 0, count);
+                }
+            }
+            key.append(':').append(Long.toHexString(crc.getValue()));
+        }
+        return key.toString();
+    }
+}
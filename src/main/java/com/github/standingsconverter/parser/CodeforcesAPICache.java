@@ -0,0 +1,169 @@
+package com.github.standingsconverter.parser;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of Codeforces API responses. An entry is a file named by the hash of its key; the last modification
+ * time of the file is the time it was fetched, and the last access time is updated on every hit to evict the least
+ * recently used entries when the cache grows over its size limit. Entries marked as immutable never expire. A response
+ * is stored only if the validator accepts it, so a failed request is not served from the cache. The eviction is
+ * serialized, and it never removes the entries stored or read through this instance, which the concurrent requests
+ * of one parse may still be using.
+ */
+class CodeforcesAPICache {
+    private static final String DATA_SUFFIX = ".json";
+    private static final String IMMUTABLE_SUFFIX = ".immutable";
+
+    private final Path directory;
+    private final long ttlMillis;
+    private final long maxSize;
+    private final Validator validator;
+    private final Set<Path> usedEntries = new HashSet<>();
+
+    CodeforcesAPICache(Path directory, long ttlMillis, long maxSize, Validator validator) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.ttlMillis = ttlMillis;
+        this.maxSize = maxSize;
+        this.validator = validator;
+    }
+
+    interface Validator {
+        /**
+         * Throws an exception if the response in the file must not be cached.
+         */
+        void validate(Path response) throws IOException;
+    }
+
+    interface Loader {
+        /**
+         * Returns the response, or null if it has not been modified since the given time. The time is 0 if nothing
+         * is cached for the key.
+         */
+        InputStream load(long ifModifiedSince) throws IOException;
+    }
+
+    InputStream open(String key, Loader loader) throws IOException {
+        String name = hash(key);
+        Path data = directory.resolve(name + DATA_SUFFIX);
+        long now = System.currentTimeMillis();
+        if (Files.isRegularFile(data)) {
+            long fetchTime = Files.getLastModifiedTime(data).toMillis();
+            boolean fresh = now - fetchTime < ttlMillis || Files.exists(directory.resolve(name + IMMUTABLE_SUFFIX));
+            if (fresh) {
+                return openEntry(data, now);
+            }
+            InputStream inputStream = loader.load(fetchTime);
+            if (inputStream == null) {
+                Files.setLastModifiedTime(data, FileTime.fromMillis(now));
+                return openEntry(data, now);
+            }
+            return store(data, name, inputStream, now);
+        }
+        return store(data, name, loader.load(0), now);
+    }
+
+    void markImmutable(String key) throws IOException {
+        Path marker = directory.resolve(hash(key) + IMMUTABLE_SUFFIX);
+        if (!Files.exists(marker)) {
+            try {
+                Files.createFile(marker);
+            } catch (FileAlreadyExistsException e) {
+                // marked concurrently
+            }
+        }
+    }
+
+    private InputStream openEntry(Path data, long now) throws IOException {
+        synchronized (this) {
+            usedEntries.add(data);
+        }
+        Files.getFileAttributeView(data, BasicFileAttributeView.class).setTimes(null, FileTime.fromMillis(now), null);
+        return Files.newInputStream(data);
+    }
+
+    private InputStream store(Path data, String name, InputStream inputStream, long now) throws IOException {
+        Path temporary = Files.createTempFile(directory, name, ".tmp");
+        try {
+            try (InputStream source = inputStream) {
+                Files.copy(source, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            validator.validate(temporary);
+            Files.move(temporary, data, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        InputStream result = openEntry(data, now);
+        evict();
+        return result;
+    }
+
+    // removes the least recently used entries with their immutable markers until the cache fits its size limit
+    private synchronized void evict() throws IOException {
+        List<Path> entries = new ArrayList<>();
+        List<BasicFileAttributes> attributes = new ArrayList<>();
+        long totalSize = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (!file.getFileName().toString().endsWith(DATA_SUFFIX)) {
+                    continue;
+                }
+                try {
+                    BasicFileAttributes fileAttributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    entries.add(file);
+                    attributes.add(fileAttributes);
+                    totalSize += fileAttributes.size();
+                } catch (NoSuchFileException e) {
+                    // evicted concurrently
+                }
+            }
+        }
+        if (totalSize <= maxSize) {
+            return;
+        }
+        Integer[] order = new Integer[entries.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (o1, o2) -> attributes.get(o1).lastAccessTime().compareTo(attributes.get(o2).lastAccessTime()));
+        for (int i = 0; i < order.length && totalSize > maxSize; i++) {
+            Path entry = entries.get(order[i]);
+            if (usedEntries.contains(entry)) {
+                continue;
+            }
+            // a marker left behind would make a new response for the key fresh forever
+            Files.deleteIfExists(entry);
+            String name = entry.getFileName().toString();
+            Files.deleteIfExists(directory.resolve(name.substring(0, name.length() - DATA_SUFFIX.length()) + IMMUTABLE_SUFFIX));
+            totalSize -= attributes.get(order[i]).size();
+        }
+    }
+
+    private static String hash(String key) {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        byte[] bytes = messageDigest.digest(key.getBytes(StandardCharsets.UTF_8));
+        StringBuilder result = new StringBuilder();
+        for (byte b : bytes) {
+            result.append(String.format("%02x", b & 0xFF));
+        }
+        return result.toString();
+    }
+}
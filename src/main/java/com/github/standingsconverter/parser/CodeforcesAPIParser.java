@@ -1,134 +1,532 @@
 package com.github.standingsconverter.parser;
 
 import com.github.standingsconverter.entity.*;
-import com.google.gson.*;
+import com.google.gson.stream.JsonReader;
 
 import java.io.*;
+import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 
-public class CodeforcesAPIParser implements Parser {
+public class CodeforcesAPIParser implements IncrementalParser {
     private static final String PROPERTY_CONTEST_ID = "contestId";
     private static final String PROPERTY_KEY = "key";
     private static final String PROPERTY_SECRET = "secret";
+    private static final String PROPERTY_CACHE_DIRECTORY = "cacheDirectory";
+    private static final String PROPERTY_CACHE_TTL_SECONDS = "cacheTtlSeconds";
+    private static final String PROPERTY_CACHE_MAX_SIZE_MEGABYTES = "cacheMaxSizeMegabytes";
+
+    private static final long DEFAULT_CACHE_TTL_SECONDS = 300;
+    private static final long DEFAULT_CACHE_MAX_SIZE_MEGABYTES = 256;
 
     private static final String CF_API_URL = "http://codeforces.com/api";
 
+    private static final int LIVE_PAGE_SIZE = 1000;
+
+    private final String apiUrl;
+    private ContestState liveState;
+
+    public CodeforcesAPIParser() {
+        this(CF_API_URL);
+    }
+
+    public CodeforcesAPIParser(String apiUrl) {
+        this.apiUrl = apiUrl;
+    }
+
     @Override
     public Contest parse(String filename) throws IOException {
         Map<String, String> properties = parseProperties(filename);
         String contestId = properties.get(PROPERTY_CONTEST_ID);
         String apiKey = properties.get(PROPERTY_KEY);
         String apiSecret = properties.get(PROPERTY_SECRET);
-        SortedMap<String, Object> contestStandingsParameters = new SortedMapBuilder<String, Object>().
+        CodeforcesAPICache cache = createCache(properties);
+        // the status doesn't depend on the standings, so both are fetched at once, and the submissions are resolved
+        // to teams and problems after that
+        FutureTask<StatusPage> statusTask = startAsync(() -> {
+            try (JsonReader reader = readJsonFromAPI("contest.status", getStatusParameters(contestId), apiKey, apiSecret, cache)) {
+                return readResponse(reader, r -> readStatus(r, -1));
+            }
+        });
+        ContestState state;
+        try {
+            state = new ContestState(filename, readStandings(contestId, apiKey, apiSecret, cache));
+        } catch (IOException | RuntimeException e) {
+            statusTask.cancel(true);
+            throw e;
+        }
+        StatusPage statusPage = join(statusTask);
+        if (cache != null && "FINISHED".equals(state.standings.phase)) {
+            // the results of a finished contest don't change anymore
+            cache.markImmutable(getCacheKey("contest.standings", getStandingsParameters(contestId), apiKey));
+            cache.markImmutable(getCacheKey("contest.status", getStatusParameters(contestId), apiKey));
+        }
+        addSubmissions(state, statusPage.entries, false);
+        return new Contest(state.standings.contestName, state.standings.duration / 60, state.standings.problems, state.standings.teams, state.submissions);
+    }
+
+    /**
+     * Live mode for running contests. The first call for a file fetches the whole contest like {@link #parse} does,
+     * the following calls ask contest.status only for the submissions newer than the last one consumed, page by
+     * page, and merge them into the contest. Submissions still being judged are consumed when they get a verdict,
+     * and teams that were not in the standings yet are added when they submit. The new submissions are appended to
+     * the submission table of the live state, whose snapshot is returned, so a poll costs as much as the new activity
+     * unless new submissions are earlier than already known ones, as they may be for virtual participants.
+     */
+    @Override
+    public Contest update(String filename) throws IOException {
+        Map<String, String> properties = parseProperties(filename);
+        String contestId = properties.get(PROPERTY_CONTEST_ID);
+        String apiKey = properties.get(PROPERTY_KEY);
+        String apiSecret = properties.get(PROPERTY_SECRET);
+        if (liveState == null || !liveState.filename.equals(filename)) {
+            liveState = null;
+            FutureTask<List<StatusEntry>> statusTask = startAsync(() -> readNewSubmissions(-1, contestId, apiKey, apiSecret));
+            ContestState state;
+            try {
+                state = new ContestState(filename, readStandings(contestId, apiKey, apiSecret, null));
+            } catch (IOException | RuntimeException e) {
+                statusTask.cancel(true);
+                throw e;
+            }
+            addSubmissions(state, join(statusTask), true);
+            liveState = state;
+        } else {
+            addSubmissions(liveState, readNewSubmissions(liveState.lastSubmissionId, contestId, apiKey, apiSecret), true);
+        }
+        SubmissionTable submissions = liveState.submissions.snapshot();
+        return new Contest(liveState.standings.contestName, liveState.standings.duration / 60, submissions.getProblems(),
+                submissions.getTeams(), submissions);
+    }
+
+    private Standings readStandings(String contestId, String apiKey, String apiSecret, CodeforcesAPICache cache) throws IOException {
+        try (JsonReader reader = readJsonFromAPI("contest.standings", getStandingsParameters(contestId), apiKey, apiSecret, cache)) {
+            return readResponse(reader, this::readStandings);
+        }
+    }
+
+    private static <T> FutureTask<T> startAsync(Callable<T> callable) {
+        FutureTask<T> task = new FutureTask<>(callable);
+        Thread thread = new Thread(task, "codeforces-api");
+        thread.setDaemon(true);
+        thread.start();
+        return task;
+    }
+
+    private static <T> T join(FutureTask<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            task.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the Codeforces API");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException(cause);
+        }
+    }
+
+    private SortedMap<String, Object> getStandingsParameters(String contestId) {
+        return new SortedMapBuilder<String, Object>().
                 put("contestId", contestId).
                 put("showUnofficial", true).
                 build();
-        JsonObject jsonContestStandings = readJsonFromAPI("contest.standings", contestStandingsParameters, apiKey, apiSecret).getAsJsonObject();
-        checkStatus(jsonContestStandings);
-        JsonObject jsonContestStandingsResult = jsonContestStandings.getAsJsonObject("result");
-        JsonObject jsonContest = jsonContestStandingsResult.getAsJsonObject("contest");
-        String contestName = jsonContest.getAsJsonPrimitive("name").getAsString();
-        long duration = jsonContest.getAsJsonPrimitive("durationSeconds").getAsLong();
-        List<Problem> problems = new ArrayList<>();
-        Map<Character, Integer> problemIdMap = new HashMap<>();
-        JsonArray jsonProblems = jsonContestStandingsResult.getAsJsonArray("problems");
-        for (int i = 0; i < jsonProblems.size(); i++) {
-            JsonObject jsonProblem = jsonProblems.get(i).getAsJsonObject();
-            char letter = jsonProblem.getAsJsonPrimitive("index").getAsCharacter();
-            String name = jsonProblem.getAsJsonPrimitive("name").getAsString();
-            Problem problem = new Problem(letter, name);
-            problemIdMap.put(letter, problems.size());
-            problems.add(problem);
-        }
-        if (problems.size() != problemIdMap.size()) {
-            throw new IllegalStateException("Some problems have equal ids");
+    }
+
+    private SortedMap<String, Object> getStatusParameters(String contestId) {
+        return new SortedMapBuilder<String, Object>().
+                put("contestId", contestId).
+                build();
+    }
+
+    // returns the submissions newer than the last consumed one, newest first
+    private List<StatusEntry> readNewSubmissions(long lastSubmissionId, String contestId, String apiKey, String apiSecret) throws IOException {
+        List<StatusEntry> entries = new ArrayList<>();
+        for (int from = 1; ; from += LIVE_PAGE_SIZE) {
+            SortedMap<String, Object> contestStatusParameters = new SortedMapBuilder<String, Object>().
+                    put("contestId", contestId).
+                    put("from", from).
+                    put("count", LIVE_PAGE_SIZE).
+                    build();
+            StatusPage statusPage;
+            try (JsonReader reader = readJsonFromAPI("contest.status", contestStatusParameters, apiKey, apiSecret, null)) {
+                statusPage = readResponse(reader, r -> readStatus(r, lastSubmissionId));
+            }
+            entries.addAll(statusPage.entries);
+            if (statusPage.reachedConsumed || statusPage.size < LIVE_PAGE_SIZE) {
+                return entries;
+            }
         }
-        JsonArray jsonRows = jsonContestStandingsResult.getAsJsonArray("rows");
-        List<Team> teams = new ArrayList<>();
-        Map<String, Integer> teamNameIdMap = new HashMap<>();
-        for (int i = 0; i < jsonRows.size(); i++) {
-            JsonObject jsonRow = jsonRows.get(i).getAsJsonObject();
-            JsonObject jsonParty = jsonRow.getAsJsonObject("party");
-            String participantType = jsonParty.getAsJsonPrimitive("participantType").getAsString();
-            boolean ghost = jsonParty.getAsJsonPrimitive("ghost").getAsBoolean();
-            if (participantType.equals("CONTESTANT") || (participantType.equals("VIRTUAL") && ghost)) {
-                String name = getTeamName(jsonParty);
-                int teamId = teams.size();
-                teamNameIdMap.put(name, teamId);
-                teams.add(new Team(teamId, name));
+    }
+
+    // entries are ordered from the newest to the oldest, as contest.status lists them
+    private void addSubmissions(ContestState state, List<StatusEntry> entries, boolean live) {
+        Standings standings = state.standings;
+        // the entries are checked before the state is changed, so a failed batch leaves the live state as it was
+        List<StatusEntry> accepted = new ArrayList<>(entries.size());
+        List<Verdict> verdicts = new ArrayList<>(entries.size());
+        Set<String> newTeamNames = new LinkedHashSet<>();
+        for (int i = entries.size() - 1; i >= 0; i--) {
+            StatusEntry entry = entries.get(i);
+            if (live && (entry.verdict == null || entry.verdict.equals("TESTING"))) {
+                // the following submissions will be consumed in order when this one is judged
+                break;
+            }
+            Verdict verdict = parseVerdict(entry.verdict);
+            if (!standings.problemIdMap.containsKey(entry.problemLetter)) {
+                throw new IllegalStateException("Can't find problem " + entry.problemLetter + " in the contest");
             }
+            if (!standings.teamNameIdMap.containsKey(entry.teamName)) {
+                if (!live) {
+                    throw new IllegalStateException("Can't find team " + entry.teamName + " in the contest");
+                }
+                newTeamNames.add(entry.teamName);
+            }
+            if (entry.relativeTime < 0 || entry.relativeTime > standings.duration) {
+                throw new IllegalStateException("Wrong relative time of submission: " + entry.relativeTime + ", duration = " + standings.duration);
+            }
+            accepted.add(entry);
+            verdicts.add(verdict);
+        }
+        for (String teamName : newTeamNames) {
+            int teamId = standings.teams.size();
+            standings.teamNameIdMap.put(teamName, teamId);
+            standings.teams.add(new Team(teamId, teamName));
+        }
+        List<Submission> newSubmissions = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            StatusEntry entry = accepted.get(i);
+            int problemId = standings.problemIdMap.get(entry.problemLetter);
+            int teamId = standings.teamNameIdMap.get(entry.teamName);
+            int attempt = state.attempts.next(teamId, problemId);
+            int submissionId = state.submissions.size() + newSubmissions.size();
+            Problem problem = standings.problems.get(problemId);
+            Team team = standings.teams.get(teamId);
+            newSubmissions.add(new Submission(submissionId, team, problem, attempt, entry.relativeTime, verdicts.get(i)));
+            state.lastSubmissionId = entry.id;
+        }
+        SubmissionOrdering.sort(newSubmissions);
+        SubmissionTable submissions = state.submissions;
+        int position = submissions.size();
+        if (!newSubmissions.isEmpty()) {
+            while (position > 0 && compare(submissions, position - 1, newSubmissions.get(0)) > 0) {
+                position--;
+            }
+        }
+        if (position == submissions.size()) {
+            for (Submission submission : newSubmissions) {
+                addRow(submissions, submission, standings);
+            }
+            return;
+        }
+        // some new submissions are earlier than already known ones, so the table is rebuilt with them merged in, and
+        // the snapshots of the old table stay as they were
+        SubmissionTable merged = new SubmissionTable(standings.teams, standings.problems, submissions.size() + newSubmissions.size());
+        int row = 0;
+        int j = 0;
+        while (row < submissions.size() || j < newSubmissions.size()) {
+            if (j == newSubmissions.size() || (row < submissions.size() && compare(submissions, row, newSubmissions.get(j)) <= 0)) {
+                merged.add(submissions.getId(row), submissions.getTeamIndex(row), submissions.getProblemIndex(row),
+                        submissions.getAttempt(row), submissions.getTime(row), submissions.getVerdict(row));
+                row++;
+            } else {
+                addRow(merged, newSubmissions.get(j++), standings);
+            }
+        }
+        state.submissions = merged;
+    }
+
+    // the same order as SubmissionOrdering.ORDER
+    private static int compare(SubmissionTable submissions, int row, Submission submission) {
+        if (submissions.getTime(row) != submission.getTime()) {
+            return Long.compare(submissions.getTime(row), submission.getTime());
         }
-        if (teams.size() != teamNameIdMap.size()) {
+        return Integer.compare(submissions.getId(row), submission.getId());
+    }
+
+    private static void addRow(SubmissionTable submissions, Submission submission, Standings standings) {
+        int problemIndex = standings.problemIdMap.get(submission.getProblem().getId());
+        submissions.add(submission.getId(), submission.getTeam().getId(), problemIndex, submission.getAttempt(), submission.getTime(), submission.getVerdict());
+    }
+
+    private <T> T readResponse(JsonReader reader, JsonValueReader<T> resultReader) throws IOException {
+        String status = null;
+        T result = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "status":
+                    status = reader.nextString();
+                    break;
+                case "result":
+                    result = resultReader.read(reader);
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (!"OK".equals(status) || result == null) {
+            throw new IOException("Codeforces API returned status " + status);
+        }
+        return result;
+    }
+
+    private Standings readStandings(JsonReader reader) throws IOException {
+        Standings standings = new Standings();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "contest":
+                    readContest(reader, standings);
+                    break;
+                case "problems":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readProblem(reader, standings);
+                    }
+                    reader.endArray();
+                    break;
+                case "rows":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        readRow(reader, standings);
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (standings.problems.size() != standings.problemIdMap.size()) {
+            throw new IllegalStateException("Some problems have equal ids");
+        }
+        if (standings.teams.size() != standings.teamNameIdMap.size()) {
             throw new IllegalStateException("Some teams have equal names");
         }
-        SortedMap<String, Object> contestStatusParameters = new SortedMapBuilder<String, Object>().
-                put("contestId", contestId).
-                build();
-        JsonObject jsonContestStatus = readJsonFromAPI("contest.status", contestStatusParameters, apiKey, apiSecret).getAsJsonObject();
-        checkStatus(jsonContestStatus);
-        List<Submission> submissions = new ArrayList<>();
-        JsonArray jsonContestStatusResult = jsonContestStatus.getAsJsonArray("result");
-        Map<TeamProblemKey, Integer> attempts = new HashMap<>();
-        for (int i = jsonContestStatusResult.size() - 1; i >= 0; i--) {
-            JsonObject jsonSubmission = jsonContestStatusResult.get(i).getAsJsonObject();
-            JsonObject jsonParty = jsonSubmission.getAsJsonObject("author");
-            String participantType = jsonParty.getAsJsonPrimitive("participantType").getAsString();
-            boolean ghost = jsonParty.getAsJsonPrimitive("ghost").getAsBoolean();
-            if (participantType.equals("CONTESTANT") || (participantType.equals("VIRTUAL") && ghost)) {
-                JsonObject jsonProblem = jsonSubmission.getAsJsonObject("problem");
-                char letter = jsonProblem.getAsJsonPrimitive("index").getAsCharacter();
-                Integer problemId = problemIdMap.get(letter);
-                if (problemId == null) {
-                    throw new IllegalStateException("Can't find problem " + letter + " in the contest");
-                }
-                String teamName = getTeamName(jsonParty);
-                Integer teamId = teamNameIdMap.get(teamName);
-                if (teamId == null) {
-                    throw new IllegalStateException("Can't find team " + teamName + " in the contest");
-                }
-                long relativeTime = jsonSubmission.getAsJsonPrimitive("relativeTimeSeconds").getAsLong();
-                if (relativeTime < 0 || relativeTime > duration) {
-                    throw new IllegalStateException("Wrong relative time of submission: " + relativeTime + ", duration = " + duration);
+        return standings;
+    }
+
+    private void readContest(JsonReader reader, Standings standings) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "name":
+                    standings.contestName = reader.nextString();
+                    break;
+                case "durationSeconds":
+                    standings.duration = reader.nextLong();
+                    break;
+                case "phase":
+                    standings.phase = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+    }
+
+    private void readProblem(JsonReader reader, Standings standings) throws IOException {
+        String index = null;
+        String name = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "index":
+                    index = reader.nextString();
+                    break;
+                case "name":
+                    name = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        char letter = index.charAt(0);
+        standings.problemIdMap.put(letter, standings.problems.size());
+        standings.problems.add(new Problem(letter, name));
+    }
+
+    private void readRow(JsonReader reader, Standings standings) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("party")) {
+                String name = readParty(reader);
+                if (name != null) {
+                    int teamId = standings.teams.size();
+                    standings.teamNameIdMap.put(name, teamId);
+                    standings.teams.add(new Team(teamId, name));
                 }
-                TeamProblemKey key = new TeamProblemKey(teamId, problemId);
-                int attempt = attempts.getOrDefault(key, 0) + 1;
-                attempts.put(key, attempt);
-                Verdict verdict = parseVerdict(jsonSubmission.getAsJsonPrimitive("verdict").getAsString());
-                int submissionId = submissions.size();
-                Problem problem = problems.get(problemId);
-                Team team = teams.get(teamId);
-                submissions.add(new Submission(submissionId, team, problem, attempt, relativeTime, verdict));
+            } else {
+                reader.skipValue();
             }
         }
-        Collections.sort(submissions, (o1, o2) -> {
-            if (o1.getTime() != o2.getTime()) {
-                return Long.compare(o1.getTime(), o2.getTime());
+        reader.endObject();
+    }
+
+    // stops collecting at the first submission with id not greater than consumedId, but still counts the rest
+    private StatusPage readStatus(JsonReader reader, long consumedId) throws IOException {
+        StatusPage statusPage = new StatusPage();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            StatusEntry entry = readStatusEntry(reader);
+            statusPage.size++;
+            if (statusPage.reachedConsumed) {
+                continue;
             }
-            return Integer.compare(o1.getId(), o2.getId());
-        });
-        return new Contest(contestName, duration / 60, problems, teams, submissions);
+            if (entry.id <= consumedId) {
+                statusPage.reachedConsumed = true;
+            } else if (entry.teamName != null) {
+                statusPage.entries.add(entry);
+            }
+        }
+        reader.endArray();
+        return statusPage;
     }
 
-    private void checkStatus(JsonObject jsonParentObject) throws IOException {
-        JsonPrimitive jsonStatus = jsonParentObject.getAsJsonPrimitive("status");
-        String status = (jsonStatus == null) ? null : jsonStatus.getAsString();
-        if (!"OK".equals(status)) {
-            throw new IOException("Codeforces API returned status " + status);
+    // the team name is null if the author is neither an official participant nor a ghost
+    private StatusEntry readStatusEntry(JsonReader reader) throws IOException {
+        boolean included = true;
+        long id = 0;
+        String teamName = null;
+        String problemIndex = null;
+        long relativeTime = 0;
+        String verdict = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String fieldName = reader.nextName();
+            if (fieldName.equals("id")) {
+                id = reader.nextLong();
+                continue;
+            }
+            if (!included) {
+                reader.skipValue();
+                continue;
+            }
+            switch (fieldName) {
+                case "author":
+                    teamName = readParty(reader);
+                    included = teamName != null;
+                    break;
+                case "problem":
+                    problemIndex = readProblemIndex(reader);
+                    break;
+                case "relativeTimeSeconds":
+                    relativeTime = reader.nextLong();
+                    break;
+                case "verdict":
+                    verdict = reader.nextString();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (!included) {
+            return new StatusEntry(id, null, (char) 0, 0, null);
         }
+        return new StatusEntry(id, teamName, problemIndex.charAt(0), relativeTime, verdict);
     }
 
-    private String getTeamName(JsonObject jsonParty) {
-        JsonArray jsonMembers = jsonParty.getAsJsonArray("members");
+    private String readProblemIndex(JsonReader reader) throws IOException {
+        String index = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("index")) {
+                index = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return index;
+    }
+
+    // returns the team name if the party is an official participant or a ghost, null otherwise
+    private String readParty(JsonReader reader) throws IOException {
+        String participantType = null;
+        boolean ghost = false;
+        String teamName = null;
+        List<String> handles = new ArrayList<>();
+        reader.beginObject();
+        while (reader.hasNext()) {
+            switch (reader.nextName()) {
+                case "participantType":
+                    participantType = reader.nextString();
+                    break;
+                case "ghost":
+                    ghost = reader.nextBoolean();
+                    break;
+                case "teamName":
+                    teamName = reader.nextString();
+                    break;
+                case "members":
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        handles.add(readHandle(reader));
+                    }
+                    reader.endArray();
+                    break;
+                default:
+                    reader.skipValue();
+                    break;
+            }
+        }
+        reader.endObject();
+        if (!"CONTESTANT".equals(participantType) && !("VIRTUAL".equals(participantType) && ghost)) {
+            return null;
+        }
+        return getTeamName(teamName, handles);
+    }
+
+    private String readHandle(JsonReader reader) throws IOException {
+        String handle = null;
+        reader.beginObject();
+        while (reader.hasNext()) {
+            if (reader.nextName().equals("handle")) {
+                handle = reader.nextString();
+            } else {
+                reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return handle;
+    }
+
+    private String getTeamName(String teamName, List<String> handles) {
         StringBuilder nameBuilder = new StringBuilder();
-        boolean hasName = jsonParty.has("teamName");
+        boolean hasName = teamName != null;
         if (hasName) {
-            nameBuilder.append(jsonParty.getAsJsonPrimitive("teamName").getAsString());
+            nameBuilder.append(teamName);
         }
-        for (int i = 0; i < jsonMembers.size(); i++) {
+        for (int i = 0; i < handles.size(); i++) {
             if (i == 0) {
                 if (hasName) {
                     nameBuilder.append(": ");
@@ -136,13 +534,15 @@ public class CodeforcesAPIParser implements Parser {
             } else {
                 nameBuilder.append(", ");
             }
-            JsonObject jsonMember = jsonMembers.get(i).getAsJsonObject();
-            nameBuilder.append(jsonMember.getAsJsonPrimitive("handle").getAsString());
+            nameBuilder.append(handles.get(i));
         }
         return nameBuilder.toString();
     }
 
     private Verdict parseVerdict(String verdictCode) {
+        if (verdictCode == null) {
+            throw new IllegalArgumentException("Submission has no verdict");
+        }
         switch (verdictCode) {
             case "OK": return Verdict.ACCEPTED;
             case "REJECTED": return Verdict.REJECTED;
@@ -157,33 +557,83 @@ public class CodeforcesAPIParser implements Parser {
         throw new IllegalArgumentException("Unknown verdict: " + verdictCode);
     }
 
-    private static class TeamProblemKey {
-        private final int teamId;
-        private final int problemId;
+    private interface JsonValueReader<T> {
+        T read(JsonReader reader) throws IOException;
+    }
+
+    private static class Standings {
+        private String contestName;
+        private long duration;
+        private String phase;
+        private final List<Problem> problems = new ArrayList<>();
+        private final Map<Character, Integer> problemIdMap = new HashMap<>();
+        private final List<Team> teams = new ArrayList<>();
+        private final Map<String, Integer> teamNameIdMap = new HashMap<>();
+    }
+
+    private static class ContestState {
+        private final String filename;
+        private final Standings standings;
+        // the table refers to the lists of the standings, which only grow
+        private SubmissionTable submissions;
+        private final AttemptCounter attempts = new AttemptCounter();
+        private long lastSubmissionId = -1;
+
+        private ContestState(String filename, Standings standings) {
+            this.filename = filename;
+            this.standings = standings;
+            this.submissions = new SubmissionTable(standings.teams, standings.problems);
+        }
+    }
 
-        public TeamProblemKey(int teamId, int problemId) {
-            this.teamId = teamId;
-            this.problemId = problemId;
+    private static class StatusPage {
+        private final List<StatusEntry> entries = new ArrayList<>();
+        private int size;
+        private boolean reachedConsumed;
+    }
+
+    private static class StatusEntry {
+        private final long id;
+        private final String teamName;
+        private final char problemLetter;
+        private final long relativeTime;
+        private final String verdict;
+
+        private StatusEntry(long id, String teamName, char problemLetter, long relativeTime, String verdict) {
+            this.id = id;
+            this.teamName = teamName;
+            this.problemLetter = problemLetter;
+            this.relativeTime = relativeTime;
+            this.verdict = verdict;
         }
+    }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            TeamProblemKey that = (TeamProblemKey) o;
-            return problemId == that.problemId && teamId == that.teamId;
+    private JsonReader readJsonFromAPI(String method, SortedMap<String, Object> parameters, String key, String secret, CodeforcesAPICache cache) throws IOException {
+        InputStream inputStream;
+        if (cache == null) {
+            inputStream = openAPI(method, parameters, key, secret, 0);
+        } else {
+            inputStream = cache.open(getCacheKey(method, parameters, key), ifModifiedSince -> openAPI(method, parameters, key, secret, ifModifiedSince));
         }
+        return new JsonReader(new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8)));
+    }
 
-        @Override
-        public int hashCode() {
-            int result = teamId;
-            result = 31 * result + problemId;
-            return result;
+    // the signature and the request time are not part of the key, so repeated requests share the cache entry
+    private String getCacheKey(String method, SortedMap<String, Object> parameters, String key) {
+        StringBuilder cacheKey = new StringBuilder(method);
+        for (Map.Entry<String, Object> e : parameters.entrySet()) {
+            cacheKey.append('&').append(e.getKey()).append('=').append(e.getValue());
+        }
+        if (key != null) {
+            cacheKey.append("&apiKey=").append(key);
         }
+        return cacheKey.toString();
     }
 
     // parameters must be sorted to make private requests
-    private JsonElement readJsonFromAPI(String method, SortedMap<String, Object> parameters, String key, String secret) throws IOException {
+    // returns null if the response was not modified since the given time
+    private InputStream openAPI(String method, SortedMap<String, Object> parameters, String key, String secret, long ifModifiedSince) throws IOException {
+        parameters = new TreeMap<>(parameters);
         if (key != null && secret != null) {
             parameters.put("apiKey", key);
             parameters.put("time", System.currentTimeMillis() / 1000);
@@ -208,20 +658,53 @@ public class CodeforcesAPIParser implements Parser {
             methodWithParams.append(rand);
             methodWithParams.append(sha512Hash);
         }
-        URL url = new URL(CF_API_URL + "/" + methodWithParams);
+        URL url = new URL(apiUrl + "/" + methodWithParams);
         URLConnection connection = url.openConnection();
-        StringBuilder jsonBuilder = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(connection.getInputStream(), "UTF-8"))) {
-            while (true) {
-                String line = reader.readLine();
-                if (line == null) {
-                    break;
+        if (ifModifiedSince > 0) {
+            connection.setIfModifiedSince(ifModifiedSince);
+            if (connection instanceof HttpURLConnection && ((HttpURLConnection) connection).getResponseCode() == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return null;
+            }
+        }
+        return connection.getInputStream();
+    }
+
+    private CodeforcesAPICache createCache(Map<String, String> properties) throws IOException {
+        String directory = properties.get(PROPERTY_CACHE_DIRECTORY);
+        if (directory == null) {
+            return null;
+        }
+        long ttlSeconds = Long.parseLong(properties.getOrDefault(PROPERTY_CACHE_TTL_SECONDS, Long.toString(DEFAULT_CACHE_TTL_SECONDS)));
+        long maxSizeMegabytes = Long.parseLong(properties.getOrDefault(PROPERTY_CACHE_MAX_SIZE_MEGABYTES, Long.toString(DEFAULT_CACHE_MAX_SIZE_MEGABYTES)));
+        return new CodeforcesAPICache(Paths.get(directory), ttlSeconds * 1000, maxSizeMegabytes << 20, CodeforcesAPIParser::checkStatus);
+    }
+
+    // reads the status of a response without its result, so that a failed response is not cached
+    private static void checkStatus(Path response) throws IOException {
+        try (JsonReader reader = new JsonReader(Files.newBufferedReader(response, StandardCharsets.UTF_8))) {
+            String status = null;
+            String comment = null;
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "status":
+                        status = reader.nextString();
+                        if (status.equals("OK")) {
+                            return;
+                        }
+                        break;
+                    case "comment":
+                        comment = reader.nextString();
+                        break;
+                    default:
+                        reader.skipValue();
+                        break;
                 }
-                jsonBuilder.append(line).append('\n');
             }
+            throw new IOException("Codeforces API returned status " + status + (comment == null ? "" : ": " + comment));
+        } catch (IllegalStateException e) {
+            throw new IOException("Malformed Codeforces API response", e);
         }
-        JsonParser parser = new JsonParser();
-        return parser.parse(jsonBuilder.toString());
     }
 
     private String sha512(String rand, String methodWithParams, String secret) throws UnsupportedEncodingException {
@@ -0,0 +1,98 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.Contest;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of parsed contests. The weight of a contest is the number of its submissions, and the least recently used
+ * contests are evicted while the total weight or the number of contests is above its limit, so the cache holds many
+ * small contests or a few big ones. The cached contests are shared by all callers, who must not modify them. The cache
+ * is thread-safe.
+ */
+public class ContestCache {
+    // about 100 MB, a submission takes 23 bytes in the table of a contest
+    public static final long DEFAULT_MAX_WEIGHT = 4_000_000;
+
+    private final long maxWeight;
+    private final int maxSize;
+    private final LinkedHashMap<String, Contest> contests = new LinkedHashMap<>(16, 0.75f, true);
+    private long weight;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ContestCache(long maxWeight) {
+        this(maxWeight, Integer.MAX_VALUE);
+    }
+
+    public ContestCache(long maxWeight, int maxSize) {
+        if (maxWeight < 0 || maxSize < 0) {
+            throw new IllegalArgumentException("Wrong cache limits: maximum weight " + maxWeight + ", maximum size " + maxSize);
+        }
+        this.maxWeight = maxWeight;
+        this.maxSize = maxSize;
+    }
+
+    // returns null and counts a miss if there is no contest with this key
+    public synchronized Contest get(String key) {
+        Contest contest = contests.get(key);
+        if (contest == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return contest;
+    }
+
+    // a contest heavier than the whole cache is not kept
+    public synchronized void put(String key, Contest contest) {
+        Contest previous = contests.remove(key);
+        if (previous != null) {
+            weight -= weigh(previous);
+        }
+        long contestWeight = weigh(contest);
+        if (contestWeight > maxWeight) {
+            return;
+        }
+        contests.put(key, contest);
+        weight += contestWeight;
+        Iterator<Contest> iterator = contests.values().iterator();
+        while (weight > maxWeight || contests.size() > maxSize) {
+            weight -= weigh(iterator.next());
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    private static long weigh(Contest contest) {
+        return Math.max(1, contest.getSubmissions().size());
+    }
+
+    public synchronized int size() {
+        return contests.size();
+    }
+
+    public synchronized long getWeight() {
+        return weight;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%d contests, %d submissions, %d hits, %d misses, %d evictions", contests.size(), weight, hits, misses, evictions);
+    }
+}
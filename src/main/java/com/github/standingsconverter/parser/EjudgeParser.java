@@ -1,101 +1,281 @@
 package com.github.standingsconverter.parser;
 
 import com.github.standingsconverter.entity.*;
-import org.w3c.dom.*;
-import org.xml.sax.SAXException;
-
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.File;
-import java.io.IOException;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
-public class EjudgeParser implements Parser {
+public class EjudgeParser implements IncrementalParser {
+    private static final int TAIL_SEARCH_SIZE = 1 << 16;
+
+    private final XMLInputFactory inputFactory = XMLInputFactory.newInstance();
+    private LogTail liveTail;
+    private LiveState liveState;
+
     @Override
     public Contest parse(String inputFile) throws IOException {
-        DocumentBuilder builder;
-        Document document;
+        Log log = read(inputFile, false);
+        List<Team> teamList = new ArrayList<>(log.teams.values());
+        List<Problem> problemList = new ArrayList<>(log.problems.values());
+        List<Submission> submissionList = new ArrayList<>(log.submissions.values());
+        Collections.sort(teamList, (o1, o2) -> Integer.compare(o1.getId(), o2.getId()));
+        Collections.sort(problemList, (o1, o2) -> Integer.compare(o1.getId(), o2.getId()));
+        SubmissionOrdering.sort(submissionList);
+        return new Contest(log.name, log.duration, problemList, teamList, submissionList);
+    }
+
+    /**
+     * Live mode for a log which is still being written. The byte offset after the last complete run element is
+     * remembered, and the next call parses only the run elements after it, so an update costs as much as the
+     * appended runs. The log is parsed from the start if it was truncated or rewritten, or if a new run refers to an
+     * unknown user or problem, repeats the id of another run or goes before the last run in time.
+     */
+    @Override
+    public Contest update(String inputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFile), StandardOpenOption.READ)) {
+            boolean consistent = false;
+            if (liveTail != null && liveTail.follows(inputFile, channel)) {
+                try {
+                    consistent = readNewRuns(channel);
+                } catch (IOException | RuntimeException e) {
+                    liveTail = null;
+                    liveState = null;
+                    throw e;
+                }
+            }
+            if (!consistent) {
+                liveTail = null;
+                liveState = null;
+                LiveState state = new LiveState(read(inputFile, true));
+                long offset = findLastRunEnd(channel);
+                if (offset >= 0) {
+                    liveTail = new LogTail(inputFile);
+                    liveTail.advance(channel, offset);
+                    liveState = state;
+                }
+                return state.toContest();
+            }
+        }
+        return liveState.toContest();
+    }
+
+    // a live log may end anywhere after the start of the runs, as it is not written completely yet
+    private Log read(String inputFile, boolean live) throws IOException {
+        Log log = new Log();
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(inputFile))) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(inputStream);
+            try {
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "runlog":
+                            log.duration = Long.parseLong(reader.getAttributeValue(null, "duration")) / 60;
+                            break;
+                        case "name":
+                            if (log.name == null) {
+                                log.name = reader.getElementText();
+                            }
+                            break;
+                        case "user":
+                            parseTeam(reader, log.teams);
+                            break;
+                        case "problem":
+                            parseProblem(reader, log.problems);
+                            break;
+                        case "runs":
+                            log.runsStarted = true;
+                            break;
+                        case "run":
+                            parseSubmission(reader, log.teams, log.problems, log.attempts, log.submissions);
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
+            if (!live || !log.runsStarted) {
+                throw new IOException(e);
+            }
+        }
+        return log;
+    }
+
+    private void parseTeam(XMLStreamReader reader, Map<Integer, Team> teams) {
+        int id = Integer.parseInt(reader.getAttributeValue(null, "id"));
+        String name = reader.getAttributeValue(null, "name");
+        Team team = new Team(teams.size(), name);
+        teams.put(id, team);
+    }
+
+    private void parseProblem(XMLStreamReader reader, Map<Integer, Problem> problems) {
+        int id = Integer.parseInt(reader.getAttributeValue(null, "id"));
+        String letter = reader.getAttributeValue(null, "short_name");
+        String name = reader.getAttributeValue(null, "long_name");
+        Problem problem = new Problem(letter.charAt(0), name);
+        problems.put(id, problem);
+    }
+
+    private void parseSubmission(XMLStreamReader reader, Map<Integer, Team> teams, Map<Integer, Problem> problems,
+                                 AttemptCounter attempts, Map<Integer, Submission> submissions) {
+        int id = Integer.parseInt(reader.getAttributeValue(null, "run_id"));
+        long time = Long.parseLong(reader.getAttributeValue(null, "time"));
+        int teamId = Integer.parseInt(reader.getAttributeValue(null, "user_id"));
+        int problemId = Integer.parseInt(reader.getAttributeValue(null, "prob_id"));
+        String verdict = reader.getAttributeValue(null, "status");
+        Team team = teams.get(teamId);
+        Problem problem = problems.get(problemId);
+        int attempt = attempts.next(teamId, problemId);
+        Submission submission = new Submission(id, team, problem, attempt, time, parseVerdict(verdict));
+        submissions.put(id, submission);
+    }
+
+    // returns false if the new runs can't be appended to the live state and the log has to be parsed again
+    private boolean readNewRuns(FileChannel channel) throws IOException {
+        long start = liveTail.getOffset();
+        long length = channel.size() - start;
+        if (length == 0) {
+            return true;
+        }
+        if (length > Integer.MAX_VALUE) {
+            return false;
+        }
+        ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+        byte[] element = new byte[0];
+        int position = 0;
+        while (true) {
+            int elementStart = findRunStart(buffer, position, buffer.limit());
+            if (elementStart < 0) {
+                break;
+            }
+            int elementEnd = findRunEnd(buffer, elementStart);
+            if (elementEnd < 0) {
+                break;
+            }
+            if (element.length < elementEnd - elementStart) {
+                element = new byte[elementEnd - elementStart];
+            }
+            buffer.position(elementStart);
+            buffer.get(element, 0, elementEnd - elementStart);
+            if (!addRun(element, elementEnd - elementStart)) {
+                return false;
+            }
+            position = elementEnd;
+        }
+        if (position > 0) {
+            liveTail.advance(channel, start + position);
+        }
+        return true;
+    }
+
+    private boolean addRun(byte[] element, int length) throws IOException {
         try {
-            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            document = builder.parse(new File(inputFile));
-        } catch (ParserConfigurationException | SAXException e) {
+            XMLStreamReader reader = inputFactory.createXMLStreamReader(new ByteArrayInputStream(element, 0, length));
+            try {
+                reader.nextTag();
+                int id = Integer.parseInt(reader.getAttributeValue(null, "run_id"));
+                long time = Long.parseLong(reader.getAttributeValue(null, "time"));
+                int teamId = Integer.parseInt(reader.getAttributeValue(null, "user_id"));
+                int problemId = Integer.parseInt(reader.getAttributeValue(null, "prob_id"));
+                Verdict verdict = parseVerdict(reader.getAttributeValue(null, "status"));
+                return liveState.add(id, time, teamId, problemId, verdict);
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
             throw new IOException(e);
         }
-        Element runLogElement = document.getDocumentElement();
-        long duration = Long.parseLong(runLogElement.getAttribute("duration")) / 60;
-        String name = runLogElement.getElementsByTagName("name").item(0).getTextContent();
-        Map<Integer, Team> teams = parseTeams(runLogElement.getElementsByTagName("user"));
-        Map<Integer, Problem> problems = parseProblems(runLogElement.getElementsByTagName("problem"));
-        Map<Integer, Submission> submissions = parseSubmissions(teams, problems, runLogElement.getElementsByTagName("run"));
-        List<Team> teamList = new ArrayList<>(teams.values());
-        List<Problem> problemList = new ArrayList<>(problems.values());
-        List<Submission> submissionList = new ArrayList<>(submissions.values());
-        Collections.sort(teamList, (o1, o2) -> Integer.compare(o1.getId(), o2.getId()));
-        Collections.sort(problemList, (o1, o2) -> Integer.compare(o1.getId(), o2.getId()));
-        Collections.sort(submissionList, (o1, o2) -> {
-            if (o1.getTime() != o2.getTime()) {
-                return Long.compare(o1.getTime(), o2.getTime());
-            }
-            return Integer.compare(o1.getId(), o2.getId());
-        });
-        return new Contest(name, duration, problemList, teamList, submissionList);
-    }
-
-    private Map<Integer, Team> parseTeams(NodeList nodeList) {
-        Map<Integer, Team> map = new HashMap<>();
-        Map<Integer, Integer> ids = new HashMap<>();
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            NamedNodeMap attributes = node.getAttributes();
-            int id = Integer.parseInt(attributes.getNamedItem("id").getNodeValue());
-            String name = attributes.getNamedItem("name").getNodeValue();
-            int newID = ids.size();
-            ids.put(id, newID);
-            Team team = new Team(newID, name);
-            map.put(id, team);
-        }
-        return map;
-    }
-
-    private Map<Integer, Problem> parseProblems(NodeList nodeList) {
-        Map<Integer, Problem> map = new HashMap<>();
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            NamedNodeMap attributes = node.getAttributes();
-            int id = Integer.parseInt(attributes.getNamedItem("id").getNodeValue());
-            String letter = attributes.getNamedItem("short_name").getNodeValue();
-            String name = attributes.getNamedItem("long_name").getNodeValue();
-            Problem problem = new Problem(letter.charAt(0), name);
-            map.put(id, problem);
-        }
-        return map;
-    }
-
-    private Map<Integer, Submission> parseSubmissions(Map<Integer, Team> teams, Map<Integer, Problem> problems, NodeList nodeList) {
-        Map<TeamProblemKey, Integer> attempts = new HashMap<>();
-        Map<Integer, Submission> map = new HashMap<>();
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node node = nodeList.item(i);
-            NamedNodeMap attributes = node.getAttributes();
-            int id = Integer.parseInt(attributes.getNamedItem("run_id").getNodeValue());
-            long time = Long.parseLong(attributes.getNamedItem("time").getNodeValue());
-            int teamId = Integer.parseInt(attributes.getNamedItem("user_id").getNodeValue());
-            int problemId = Integer.parseInt(attributes.getNamedItem("prob_id").getNodeValue());
-            String verdict = attributes.getNamedItem("status").getNodeValue();
-            Team team = teams.get(teamId);
-            Problem problem = problems.get(problemId);
-            TeamProblemKey key = new TeamProblemKey(teamId, problemId);
-            if (!attempts.containsKey(key)) {
-                attempts.put(key, 1);
-            } else {
-                attempts.put(key, attempts.get(key) + 1);
-            }
-            int attempt = attempts.get(key);
-            Submission submission = new Submission(id, team, problem, attempt, time, parseVerdict(verdict));
-            map.put(id, submission);
-        }
-        return map;
+    }
+
+    // the offset after the last complete run element, or -1 if the log has no place where the runs are appended
+    private static long findLastRunEnd(FileChannel channel) throws IOException {
+        long size = channel.size();
+        for (long searchSize = Math.min(size, TAIL_SEARCH_SIZE); ; searchSize = Math.min(size, searchSize * 2)) {
+            if (size - searchSize > Integer.MAX_VALUE || searchSize > Integer.MAX_VALUE) {
+                return -1;
+            }
+            long start = size - searchSize;
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, searchSize);
+            int lastEnd = -1;
+            for (int i = buffer.limit() - 1; i >= 0 && lastEnd < 0; i--) {
+                if (isRunStart(buffer, i, buffer.limit())) {
+                    lastEnd = findRunEnd(buffer, i);
+                } else if (matches(buffer, i, "<runs>")) {
+                    lastEnd = i + "<runs>".length();
+                }
+            }
+            if (lastEnd >= 0) {
+                return start + lastEnd;
+            }
+            if (searchSize == size) {
+                return -1;
+            }
+        }
+    }
+
+    private static int findRunStart(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (isRunStart(buffer, i, to)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isRunStart(ByteBuffer buffer, int i, int to) {
+        if (i + 4 >= to || !matches(buffer, i, "<run")) {
+            return false;
+        }
+        byte next = buffer.get(i + 4);
+        return next == ' ' || next == '\t' || next == '\n' || next == '\r' || next == '/' || next == '>';
+    }
+
+    // the offset after the run element starting at the given one, or -1 if it isn't complete yet
+    private static int findRunEnd(ByteBuffer buffer, int start) {
+        byte quote = 0;
+        for (int i = start + 4; i < buffer.limit(); i++) {
+            byte b = buffer.get(i);
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (b == '"' || b == '\'') {
+                quote = b;
+            } else if (b == '>') {
+                if (buffer.get(i - 1) == '/') {
+                    return i + 1;
+                }
+                for (int j = i + 1; j + "</run>".length() <= buffer.limit(); j++) {
+                    if (matches(buffer, j, "</run>")) {
+                        return j + "</run>".length();
+                    }
+                }
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(ByteBuffer buffer, int from, String s) {
+        if (from + s.length() > buffer.limit()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (buffer.get(from + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     private static Verdict parseVerdict(String s) {
@@ -114,28 +294,72 @@ public class EjudgeParser implements Parser {
         throw new IllegalArgumentException("Unknown verdict: " + s);
     }
 
-    private static class TeamProblemKey {
-        private final int teamId;
-        private final int problemId;
+    private static class Log {
+        private long duration = 0;
+        private String name = null;
+        private boolean runsStarted = false;
+        private final Map<Integer, Team> teams = new HashMap<>();
+        private final Map<Integer, Problem> problems = new HashMap<>();
+        private final Map<Integer, Submission> submissions = new HashMap<>();
+        private final AttemptCounter attempts = new AttemptCounter();
+    }
+
+    // the parsed log kept as a submission table, the ejudge ids of users and problems are mapped to the indexes in it
+    private static class LiveState {
+        private final String name;
+        private final long duration;
+        private final Map<Integer, Integer> teamIndexes = new HashMap<>();
+        private final Map<Integer, Integer> problemIndexes = new HashMap<>();
+        private final Set<Integer> runIds;
+        private final AttemptCounter attempts;
+        private final SubmissionTable submissions;
 
-        public TeamProblemKey(int teamId, int problemId) {
-            this.teamId = teamId;
-            this.problemId = problemId;
+        private LiveState(Log log) {
+            name = log.name;
+            duration = log.duration;
+            List<Team> teams = new ArrayList<>(log.teams.values());
+            List<Problem> problems = new ArrayList<>(log.problems.values());
+            Collections.sort(teams, (o1, o2) -> Integer.compare(o1.getId(), o2.getId()));
+            Collections.sort(problems, (o1, o2) -> Integer.compare(o1.getId(), o2.getId()));
+            Map<Team, Integer> teamPositions = new IdentityHashMap<>();
+            for (int i = 0; i < teams.size(); i++) {
+                teamPositions.put(teams.get(i), i);
+            }
+            Map<Problem, Integer> problemPositions = new IdentityHashMap<>();
+            for (int i = 0; i < problems.size(); i++) {
+                problemPositions.put(problems.get(i), i);
+            }
+            for (Map.Entry<Integer, Team> entry : log.teams.entrySet()) {
+                teamIndexes.put(entry.getKey(), teamPositions.get(entry.getValue()));
+            }
+            for (Map.Entry<Integer, Problem> entry : log.problems.entrySet()) {
+                problemIndexes.put(entry.getKey(), problemPositions.get(entry.getValue()));
+            }
+            List<Submission> submissionList = new ArrayList<>(log.submissions.values());
+            SubmissionOrdering.sort(submissionList);
+            submissions = SubmissionTable.of(teams, problems, submissionList);
+            runIds = new HashSet<>(log.submissions.keySet());
+            attempts = log.attempts;
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            TeamProblemKey that = (TeamProblemKey) o;
-            return problemId == that.problemId && teamId == that.teamId;
+        private boolean add(int id, long time, int teamId, int problemId, Verdict verdict) {
+            Integer teamIndex = teamIndexes.get(teamId);
+            Integer problemIndex = problemIndexes.get(problemId);
+            if (teamIndex == null || problemIndex == null || runIds.contains(id)) {
+                return false;
+            }
+            int last = submissions.size() - 1;
+            if (last >= 0 && (time < submissions.getTime(last) || (time == submissions.getTime(last) && id < submissions.getId(last)))) {
+                return false;
+            }
+            runIds.add(id);
+            submissions.add(id, teamIndex, problemIndex, attempts.next(teamId, problemId), time, verdict);
+            return true;
         }
 
-        @Override
-        public int hashCode() {
-            int result = teamId;
-            result = 31 * result + problemId;
-            return result;
+        private Contest toContest() {
+            SubmissionTable snapshot = submissions.snapshot();
+            return new Contest(name, duration, snapshot.getProblems(), snapshot.getTeams(), snapshot);
         }
     }
 }
@@ -0,0 +1,13 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.Contest;
+
+import java.io.IOException;
+
+/**
+ * A parser which can follow a contest that is still running. The first call of {@link #update} for an input parses
+ * it completely, the following calls for the same input only read what was added since the previous call.
+ */
+public interface IncrementalParser extends Parser {
+    Contest update(String filename) throws IOException;
+}
@@ -0,0 +1,51 @@
+package com.github.standingsconverter.parser;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+
+/**
+ * Remembers how far a growing log was consumed: the byte offset after the last complete record and a fingerprint of
+ * the bytes right before it. An update reads only the bytes after the offset. A log which shrank or whose consumed
+ * part changed, e.g. because it was rewritten from scratch, has to be parsed again from the start.
+ */
+class LogTail {
+    private static final int FINGERPRINT_SIZE = 64;
+
+    private final String filename;
+    private long offset;
+    private byte[] fingerprint = new byte[0];
+
+    LogTail(String filename) {
+        this.filename = filename;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    // whether the file still has the consumed bytes at their place, as far as the fingerprint can tell
+    boolean follows(String filename, FileChannel channel) throws IOException {
+        if (!this.filename.equals(filename) || channel.size() < offset) {
+            return false;
+        }
+        return Arrays.equals(read(channel, offset - fingerprint.length, fingerprint.length), fingerprint);
+    }
+
+    void advance(FileChannel channel, long offset) throws IOException {
+        int length = (int) Math.min(FINGERPRINT_SIZE, offset);
+        fingerprint = read(channel, offset - length, length);
+        this.offset = offset;
+    }
+
+    private static byte[] read(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.array();
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.Submission;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Contiguous ranges of a list of submissions which are each already in the order of {@link SubmissionOrdering#ORDER},
+ * such as the runs of a team on a problem in a PCMS log. The ranges are merged with a binary heap of their first
+ * unmerged submissions, which takes O(n log k) time for n submissions in k ranges instead of sorting all of them. If a
+ * range turns out to be out of order, the ranges don't cover the list, or a time or an id doesn't fit the packed key
+ * of the heap, the list is sorted by SubmissionOrdering.
+ */
+class RunRanges {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private int[] starts = new int[INITIAL_CAPACITY];
+    private int[] ends = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    private int covered = 0;
+    private boolean ordered = true;
+
+    /**
+     * Adds the range [start, end) of the list. The ranges must be added in the order of the list and must not overlap.
+     */
+    void add(List<Submission> submissions, int start, int end) {
+        if (start == end) {
+            return;
+        }
+        if (size > 0 && start < ends[size - 1]) {
+            ordered = false;
+        }
+        for (int i = start + 1; i < end && ordered; i++) {
+            ordered = SubmissionOrdering.ORDER.compare(submissions.get(i - 1), submissions.get(i)) <= 0;
+        }
+        if (size == starts.length) {
+            starts = Arrays.copyOf(starts, size * 2);
+            ends = Arrays.copyOf(ends, size * 2);
+        }
+        starts[size] = start;
+        ends[size] = end;
+        size++;
+        covered += end - start;
+    }
+
+    /**
+     * Returns the submissions of the list in the order of {@link SubmissionOrdering#ORDER}. The list itself is
+     * returned if it is in order already or has to be sorted.
+     */
+    List<Submission> merge(List<Submission> submissions) {
+        if (!ordered || covered != submissions.size()) {
+            SubmissionOrdering.sort(submissions);
+            return submissions;
+        }
+        if (isSorted(submissions)) {
+            return submissions;
+        }
+        // the heap holds the ranges which are not merged yet, ordered by the packed (time, id) key of the first
+        // unmerged submission, which compares like SubmissionOrdering.ORDER
+        int[] heap = new int[size];
+        long[] heapKeys = new long[size];
+        int[] positions = Arrays.copyOf(starts, size);
+        for (int i = 0; i < size; i++) {
+            heap[i] = i;
+            heapKeys[i] = key(submissions.get(starts[i]));
+            if (heapKeys[i] < 0) {
+                SubmissionOrdering.sort(submissions);
+                return submissions;
+            }
+        }
+        int heapSize = size;
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(heap, heapKeys, heapSize, i, heap[i], heapKeys[i]);
+        }
+        List<Submission> merged = new ArrayList<>(submissions.size());
+        while (heapSize > 0) {
+            int range = heap[0];
+            merged.add(submissions.get(positions[range]++));
+            if (positions[range] < ends[range]) {
+                long key = key(submissions.get(positions[range]));
+                if (key < 0) {
+                    // the list is not changed by the merge, so it can still be sorted
+                    SubmissionOrdering.sort(submissions);
+                    return submissions;
+                }
+                siftDown(heap, heapKeys, heapSize, 0, range, key);
+            } else if (--heapSize > 0) {
+                siftDown(heap, heapKeys, heapSize, 0, heap[heapSize], heapKeys[heapSize]);
+            }
+        }
+        return merged;
+    }
+
+    // returns -1 if the submission doesn't fit the key
+    private static long key(Submission submission) {
+        long time = submission.getTime();
+        int id = submission.getId();
+        if (time < 0 || time > Integer.MAX_VALUE || id < 0) {
+            return -1;
+        }
+        return (time << 32) | id;
+    }
+
+    private static void siftDown(int[] heap, long[] heapKeys, int heapSize, int i, int range, long key) {
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                child++;
+            }
+            if (heapKeys[child] >= key) {
+                break;
+            }
+            heap[i] = heap[child];
+            heapKeys[i] = heapKeys[child];
+            i = child;
+        }
+        heap[i] = range;
+        heapKeys[i] = key;
+    }
+
+    private static boolean isSorted(List<Submission> submissions) {
+        for (int i = 1; i < submissions.size(); i++) {
+            if (SubmissionOrdering.ORDER.compare(submissions.get(i - 1), submissions.get(i)) > 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.Submission;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Orders submissions by time and then by id, the order of submissions in a contest. The times are bounded by the
+ * contest duration, so both fields are packed into a single long key, and the keys are sorted by an LSD radix sort
+ * which skips the digits that are equal in all keys. The sort is stable, so the result is the same as of
+ * {@link Collections#sort} with {@link #ORDER}, which is still used for negative or too large values.
+ */
+public final class SubmissionOrdering {
+    public static final Comparator<Submission> ORDER = (o1, o2) -> {
+        if (o1.getTime() != o2.getTime()) {
+            return Long.compare(o1.getTime(), o2.getTime());
+        }
+        return Integer.compare(o1.getId(), o2.getId());
+    };
+
+    private static final int MIN_RADIX_SIZE = 64;
+    private static final int DIGIT_BITS = 16;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+
+    private SubmissionOrdering() {
+    }
+
+    public static void sort(List<Submission> submissions) {
+        int n = submissions.size();
+        if (n < MIN_RADIX_SIZE) {
+            Collections.sort(submissions, ORDER);
+            return;
+        }
+        Submission[] array = submissions.toArray(new Submission[n]);
+        long[] keys = new long[n];
+        boolean sorted = true;
+        for (int i = 0; i < n; i++) {
+            long time = array[i].getTime();
+            int id = array[i].getId();
+            if (time < 0 || time > Integer.MAX_VALUE || id < 0) {
+                Collections.sort(submissions, ORDER);
+                return;
+            }
+            keys[i] = (time << 32) | id;
+            if (i > 0 && keys[i - 1] > keys[i]) {
+                sorted = false;
+            }
+        }
+        if (sorted) {
+            return;
+        }
+        int[] order = radixSort(keys);
+        for (int i = 0; i < n; i++) {
+            submissions.set(i, array[order[i]]);
+        }
+    }
+
+    /**
+     * Returns the permutation of indexes which orders the non-negative keys stably.
+     */
+    static int[] radixSort(long[] keys) {
+        int n = keys.length;
+        long or = 0;
+        long and = -1;
+        for (long key : keys) {
+            or |= key;
+            and &= key;
+        }
+        long varying = or ^ and;
+        long[] currentKeys = keys.clone();
+        int[] currentOrder = new int[n];
+        for (int i = 0; i < n; i++) {
+            currentOrder[i] = i;
+        }
+        long[] nextKeys = new long[n];
+        int[] nextOrder = new int[n];
+        int[] counts = new int[DIGIT_MASK + 2];
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            if (((varying >>> shift) & DIGIT_MASK) == 0) {
+                continue;
+            }
+            Arrays.fill(counts, 0);
+            for (int i = 0; i < n; i++) {
+                counts[(int) ((currentKeys[i] >>> shift) & DIGIT_MASK) + 1]++;
+            }
+            for (int d = 1; d < counts.length; d++) {
+                counts[d] += counts[d - 1];
+            }
+            for (int i = 0; i < n; i++) {
+                int position = counts[(int) ((currentKeys[i] >>> shift) & DIGIT_MASK)]++;
+                nextKeys[position] = currentKeys[i];
+                nextOrder[position] = currentOrder[i];
+            }
+            long[] swapKeys = currentKeys;
+            currentKeys = nextKeys;
+            nextKeys = swapKeys;
+            int[] swapOrder = currentOrder;
+            currentOrder = nextOrder;
+            nextOrder = swapOrder;
+        }
+        return currentOrder;
+    }
+}
@@ -2,104 +2,328 @@ package com.github.standingsconverter.parser;
 
 import com.github.standingsconverter.entity.*;
 
-import java.io.BufferedReader;
-import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
 
-public class TestsysParser implements Parser {
+/**
+ * Parses Testsys logs by memory-mapping the file and tokenizing the records directly from bytes. The charset must
+ * be ASCII-compatible, e.g. UTF-8 (the default, as written by the TestsysOutputter) or windows-1251.
+ */
+public class TestsysParser implements IncrementalParser {
+    private static final int MAX_WINDOW_SIZE = 1 << 28;
+    private static final int MAX_DENSE_TEAM_ID = 1 << 20;
+
+    private final Charset charset;
+    private LogTail liveTail;
+    private State liveState;
+
+    public TestsysParser() {
+        this(StandardCharsets.UTF_8);
+    }
+
+    public TestsysParser(Charset charset) {
+        this.charset = charset;
+    }
+
     @Override
     public Contest parse(String inputFile) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(new File(inputFile)))) {
-            String name = "";
-            long duration = 0;
-            List<Problem> problems = new ArrayList<>();
-            List<Team> teams = new ArrayList<>();
-            List<Submission> submissions = new ArrayList<>();
-            Map<Character, Problem> problemMap = new HashMap<>();
-            Map<Integer, Team> teamMap = new HashMap<>();
-            while (true) {
-                String line = reader.readLine();
-                if (line == null) {
+        State state = new State();
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFile), StandardOpenOption.READ)) {
+            parseFrom(channel, 0, true, state);
+        }
+        return new Contest(state.name, state.duration, state.problems, state.teams, state.submissions);
+    }
+
+    /**
+     * Live mode for a log which is still being written. The lines after the last complete one consumed by the
+     * previous call are parsed, so an update costs as much as the appended data. A line without the line break yet
+     * is left for the next call. The log is parsed from the start if it was truncated or rewritten.
+     */
+    @Override
+    public Contest update(String inputFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(Paths.get(inputFile), StandardOpenOption.READ)) {
+            if (liveTail == null || !liveTail.follows(inputFile, channel)) {
+                liveTail = new LogTail(inputFile);
+                liveState = new State();
+            }
+            try {
+                liveTail.advance(channel, parseFrom(channel, liveTail.getOffset(), false, liveState));
+            } catch (IOException | RuntimeException e) {
+                // some lines may be applied already, so the next call starts from scratch
+                liveTail = null;
+                liveState = null;
+                throw e;
+            }
+        }
+        SubmissionTable submissions = liveState.submissions.snapshot();
+        return new Contest(liveState.name, liveState.duration, submissions.getProblems(), submissions.getTeams(), submissions);
+    }
+
+    // returns the offset after the last parsed line, an incomplete last line is only parsed if the log is complete
+    private long parseFrom(FileChannel channel, long start, boolean complete, State state) throws IOException {
+        long size = channel.size();
+        long windowStart = start;
+        while (windowStart < size) {
+            int windowSize = (int) Math.min(size - windowStart, MAX_WINDOW_SIZE);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowSize);
+            boolean lastWindow = windowStart + windowSize == size;
+            int consumed = parseLines(buffer, windowSize, complete && lastWindow, state);
+            if (consumed == 0) {
+                if (lastWindow && !complete) {
                     break;
                 }
-                if (!line.startsWith("@")) {
-                    continue;
-                }
-                line = line.substring(1);
-                String type = line.substring(0, line.indexOf(' '));
-                switch (type) {
-                    case "contest":
-                        int firstPos = line.indexOf('"');
-                        int lastPos = line.lastIndexOf('"');
-                        name = line.substring(firstPos + 1, lastPos);
-                        break;
-                    case "contlen":
-                        duration = Long.parseLong(line.substring(7).trim());
-                        break;
-                    case "p":
-                        String problemDescription = line.substring(1).trim();
-                        Problem problem = parseProblem(problemDescription);
-                        problems.add(problem);
-                        problemMap.put(problem.getId(), problem);
-                        break;
-                    case "t":
-                        String teamDescription = line.substring(1).trim();
-                        Team team = parseTeam(teamDescription);
-                        teams.add(team);
-                        teamMap.put(team.getId(), team);
-                        break;
-                    case "s":
-                        String submissionDescription = line.substring(1).trim();
-                        int id = submissions.size();
-                        Submission submission = parseSubmission(submissionDescription, problemMap, teamMap, id);
-                        submissions.add(submission);
-                        break;
-                }
+                throw new IOException("Line at offset " + windowStart + " is too long");
+            }
+            windowStart += consumed;
+        }
+        return windowStart;
+    }
+
+    // returns the number of bytes in the complete lines that were parsed
+    private int parseLines(MappedByteBuffer buffer, int limit, boolean lastWindow, State state) {
+        int lineStart = 0;
+        for (int i = 0; i < limit; i++) {
+            byte b = buffer.get(i);
+            if (b == '\n' || b == '\r') {
+                parseLine(buffer, lineStart, i, state);
+                lineStart = i + 1;
             }
-            return new Contest(name, duration, problems, teams, submissions);
         }
+        if (lastWindow && lineStart < limit) {
+            parseLine(buffer, lineStart, limit, state);
+            lineStart = limit;
+        }
+        return lineStart;
+    }
+
+    private void parseLine(MappedByteBuffer buffer, int from, int to, State state) {
+        if (from == to || buffer.get(from) != '@') {
+            return;
+        }
+        int typeEnd = indexOf(buffer, from + 1, to, (byte) ' ');
+        if (typeEnd < 0) {
+            return;
+        }
+        int typeLength = typeEnd - from - 1;
+        byte type = buffer.get(from + 1);
+        if (typeLength == 1 && type == 's') {
+            parseSubmission(buffer, trimStart(buffer, typeEnd, to), trimEnd(buffer, typeEnd, to), state);
+        } else if (typeLength == 1 && type == 't') {
+            Team team = parseTeam(buffer, trimStart(buffer, typeEnd, to), trimEnd(buffer, typeEnd, to));
+            state.putTeam(team.getId(), state.teams.size());
+            state.teams.add(team);
+        } else if (typeLength == 1 && type == 'p') {
+            Problem problem = parseProblem(buffer, trimStart(buffer, typeEnd, to), trimEnd(buffer, typeEnd, to));
+            state.putProblem(problem.getId(), state.problems.size());
+            state.problems.add(problem);
+        } else if (matches(buffer, from + 1, typeEnd, "contest")) {
+            int firstPos = indexOf(buffer, typeEnd, to, (byte) '"');
+            int lastPos = lastIndexOf(buffer, typeEnd, to, (byte) '"');
+            state.name = decode(buffer, firstPos + 1, lastPos);
+        } else if (matches(buffer, from + 1, typeEnd, "contlen")) {
+            state.duration = parseLong(buffer, trimStart(buffer, typeEnd, to), trimEnd(buffer, typeEnd, to));
+        }
+    }
+
+    private Problem parseProblem(MappedByteBuffer buffer, int from, int to) {
+        int idEnd = from + 1;
+        char id = (char) buffer.get(from);
+        if (id >= 0x80) {
+            int comma = indexOf(buffer, from, to, (byte) ',');
+            id = decode(buffer, from, comma < 0 ? to : comma).charAt(0);
+            idEnd = comma < 0 ? to : comma;
+        }
+        int nameStart = idEnd + 1;
+        int nameEnd = indexOf(buffer, nameStart, to, (byte) ',');
+        return new Problem(id, decode(buffer, nameStart, nameEnd));
     }
 
-    private Problem parseProblem(String problemDescription) {
-        char id = problemDescription.charAt(0);
-        problemDescription = problemDescription.substring(2);
-        String name = problemDescription.substring(0, problemDescription.indexOf(','));
-        return new Problem(id, name);
+    private Team parseTeam(MappedByteBuffer buffer, int from, int to) {
+        int id = (int) parseLong(buffer, from, indexOf(buffer, from, to, (byte) ','));
+        int firstPos = indexOf(buffer, from, to, (byte) '"');
+        int lastPos = lastIndexOf(buffer, from, to, (byte) '"');
+        return new Team(id, decode(buffer, firstPos + 1, lastPos));
     }
 
-    private Team parseTeam(String teamDescription) {
-        int id = Integer.parseInt(teamDescription.substring(0, teamDescription.indexOf(',')));
-        int firstPos = teamDescription.indexOf('"');
-        int lastPos = teamDescription.lastIndexOf('"');
-        String name = teamDescription.substring(firstPos + 1, lastPos);
-        return new Team(id, name);
+    private void parseSubmission(MappedByteBuffer buffer, int from, int to, State state) {
+        int tokenEnd = nextToken(buffer, from, to);
+        int teamIndex = state.getTeamIndex((int) parseLong(buffer, from, tokenEnd));
+        from = skipCommas(buffer, tokenEnd, to);
+        tokenEnd = nextToken(buffer, from, to);
+        char problemId = (char) buffer.get(from);
+        if (problemId >= 0x80) {
+            problemId = decode(buffer, from, tokenEnd).charAt(0);
+        }
+        int problemIndex = state.getProblemIndex(problemId);
+        from = skipCommas(buffer, tokenEnd, to);
+        tokenEnd = nextToken(buffer, from, to);
+        int attempt = (int) parseLong(buffer, from, tokenEnd);
+        from = skipCommas(buffer, tokenEnd, to);
+        tokenEnd = nextToken(buffer, from, to);
+        long time = parseLong(buffer, from, tokenEnd);
+        from = skipCommas(buffer, tokenEnd, to);
+        tokenEnd = nextToken(buffer, from, to);
+        Verdict verdict = parseVerdict(buffer, from, tokenEnd);
+        state.submissions.add(state.submissions.size(), teamIndex, problemIndex, attempt, time, verdict);
+    }
+
+    private Verdict parseVerdict(MappedByteBuffer buffer, int from, int to) {
+        if (to - from == 2) {
+            switch ((buffer.get(from) << 8) | buffer.get(from + 1)) {
+                case ('O' << 8) | 'K': return Verdict.ACCEPTED;
+                case ('R' << 8) | 'J': return Verdict.REJECTED;
+                case ('W' << 8) | 'A': return Verdict.WRONG_ANSWER;
+                case ('R' << 8) | 'T': return Verdict.RUNTIME_ERROR;
+                case ('T' << 8) | 'L': return Verdict.TIME_LIMIT_EXCEEDED;
+                case ('M' << 8) | 'L': return Verdict.MEMORY_LIMIT_EXCEEDED;
+                case ('C' << 8) | 'E': return Verdict.COMPILATION_ERROR;
+                case ('P' << 8) | 'E': return Verdict.PRESENTATION_ERROR;
+            }
+        }
+        throw new IllegalArgumentException("Unknown verdict: " + decode(buffer, from, to));
     }
 
-    private Submission parseSubmission(String submissionDescription, Map<Character, Problem> problemMap, Map<Integer, Team> teamMap, int id) {
-        StringTokenizer tokenizer = new StringTokenizer(submissionDescription, ",");
-        int teamID = Integer.parseInt(tokenizer.nextToken());
-        Team team = teamMap.get(teamID);
-        char problemID = tokenizer.nextToken().charAt(0);
-        Problem problem = problemMap.get(problemID);
-        int attempt = Integer.parseInt(tokenizer.nextToken());
-        long time = Long.parseLong(tokenizer.nextToken());
-        Verdict verdict = parseVerdict(tokenizer.nextToken());
-        return new Submission(id, team, problem, attempt, time, verdict);
+    private long parseLong(MappedByteBuffer buffer, int from, int to) {
+        boolean negative = false;
+        int i = from;
+        if (i < to && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+            negative = buffer.get(i) == '-';
+            i++;
+        }
+        if (i == to) {
+            throw new NumberFormatException("For input string: \"" + decode(buffer, from, to) + "\"");
+        }
+        long result = 0;
+        for (; i < to; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException("For input string: \"" + decode(buffer, from, to) + "\"");
+            }
+            result = result * 10 + digit;
+        }
+        return negative ? -result : result;
     }
 
-    private Verdict parseVerdict(String verdictCode) {
-        switch (verdictCode) {
-            case "OK": return Verdict.ACCEPTED;
-            case "RJ": return Verdict.REJECTED;
-            case "WA": return Verdict.WRONG_ANSWER;
-            case "RT": return Verdict.RUNTIME_ERROR;
-            case "TL": return Verdict.TIME_LIMIT_EXCEEDED;
-            case "ML": return Verdict.MEMORY_LIMIT_EXCEEDED;
-            case "CE": return Verdict.COMPILATION_ERROR;
-            case "PE": return Verdict.PRESENTATION_ERROR;
+    private String decode(MappedByteBuffer buffer, int from, int to) {
+        byte[] bytes = new byte[to - from];
+        for (int i = from; i < to; i++) {
+            bytes[i - from] = buffer.get(i);
+        }
+        return new String(bytes, charset);
+    }
+
+    private static boolean matches(MappedByteBuffer buffer, int from, int to, String s) {
+        if (to - from != s.length()) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (buffer.get(from + i) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int indexOf(MappedByteBuffer buffer, int from, int to, byte b) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int lastIndexOf(MappedByteBuffer buffer, int from, int to, byte b) {
+        for (int i = to - 1; i >= from; i--) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int trimStart(MappedByteBuffer buffer, int from, int to) {
+        while (from < to && (buffer.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        return from;
+    }
+
+    private static int trimEnd(MappedByteBuffer buffer, int from, int to) {
+        while (to > from && (buffer.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        return to;
+    }
+
+    private static int nextToken(MappedByteBuffer buffer, int from, int to) {
+        int comma = indexOf(buffer, from, to, (byte) ',');
+        return comma < 0 ? to : comma;
+    }
+
+    private static int skipCommas(MappedByteBuffer buffer, int from, int to) {
+        while (from < to && buffer.get(from) == ',') {
+            from++;
+        }
+        return from;
+    }
+
+    // teams and problems are referenced by their indexes in the lists, an index is stored plus one to keep 0 for absent
+    private static class State {
+        private String name = "";
+        private long duration = 0;
+        private final List<Problem> problems = new ArrayList<>();
+        private final List<Team> teams = new ArrayList<>();
+        private final SubmissionTable submissions = new SubmissionTable(teams, problems);
+        private final int[] asciiProblems = new int[0x80];
+        private final Map<Character, Integer> otherProblems = new HashMap<>();
+        private int[] denseTeams = new int[16];
+        private final Map<Integer, Integer> otherTeams = new HashMap<>();
+
+        private void putProblem(char id, int index) {
+            if (id < asciiProblems.length) {
+                asciiProblems[id] = index + 1;
+            } else {
+                otherProblems.put(id, index + 1);
+            }
+        }
+
+        private int getProblemIndex(char id) {
+            int index = id < asciiProblems.length ? asciiProblems[id] : otherProblems.getOrDefault(id, 0);
+            if (index == 0) {
+                throw new IllegalStateException("Can't find problem " + id);
+            }
+            return index - 1;
+        }
+
+        private void putTeam(int id, int index) {
+            if (id >= 0 && id < MAX_DENSE_TEAM_ID) {
+                if (id >= denseTeams.length) {
+                    denseTeams = Arrays.copyOf(denseTeams, Math.max(id + 1, denseTeams.length * 2));
+                }
+                denseTeams[id] = index + 1;
+            } else {
+                otherTeams.put(id, index + 1);
+            }
+        }
+
+        private int getTeamIndex(int id) {
+            int index;
+            if (id >= 0 && id < MAX_DENSE_TEAM_ID) {
+                index = id < denseTeams.length ? denseTeams[id] : 0;
+            } else {
+                index = otherTeams.getOrDefault(id, 0);
+            }
+            if (index == 0) {
+                throw new IllegalStateException("Can't find team " + id);
+            }
+            return index - 1;
         }
-        throw new IllegalArgumentException("Unknown verdict: " + verdictCode);
     }
 }
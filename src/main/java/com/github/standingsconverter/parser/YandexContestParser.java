@@ -1,80 +1,89 @@
 package com.github.standingsconverter.parser;
 
 import com.github.standingsconverter.entity.*;
-import org.w3c.dom.*;
-import org.xml.sax.SAXException;
 
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
-import java.io.File;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.*;
 
 public class YandexContestParser implements Parser {
     @Override
     public Contest parse(String inputFile) throws IOException {
-        DocumentBuilder builder;
-        Document document;
-        try {
-            builder = DocumentBuilderFactory.newInstance().newDocumentBuilder();
-            document = builder.parse(new File(inputFile));
-        } catch (ParserConfigurationException | SAXException e) {
+        long duration = 0;
+        String name = null;
+        Map<String, Team> teams = new HashMap<>();
+        Map<String, Problem> problems = new HashMap<>();
+        List<Submission> submissions = new ArrayList<>();
+        AttemptCounter attempts = new AttemptCounter();
+        try (InputStream inputStream = new BufferedInputStream(new FileInputStream(inputFile))) {
+            XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(inputStream);
+            try {
+                // the log lists settings, problems and users before the events, so hidden participants are known
+                // by the time their submits are read
+                while (reader.hasNext()) {
+                    if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+                        continue;
+                    }
+                    switch (reader.getLocalName()) {
+                        case "contestName":
+                            name = reader.getElementText();
+                            break;
+                        case "duration":
+                            duration = parseDuration(reader.getElementText()) / 60;
+                            break;
+                        case "problem":
+                            parseProblem(reader, problems);
+                            break;
+                        case "user":
+                            parseTeam(reader, teams);
+                            break;
+                        case "submit":
+                            Submission submission = parseSubmission(reader, teams, problems, submissions.size(), attempts);
+                            if (submission != null) {
+                                submissions.add(submission);
+                            } else {
+                                skipElement(reader);
+                            }
+                            break;
+                    }
+                }
+            } finally {
+                reader.close();
+            }
+        } catch (XMLStreamException e) {
             throw new IOException(e);
         }
-        Element contestLogElement = document.getDocumentElement();
-
-        Node settingsElement = getChild(contestLogElement, "settings");
-        Node durationElement = getChild(settingsElement, "duration");
-        long duration = parseDuration(durationElement) / 60;
-        String name = getChild(settingsElement, "contestName").getTextContent();
-
-        Node usersElement = getChild(contestLogElement, "users");
-        Node problemsElement = getChild(contestLogElement, "problems");
-        Node eventsElement = getChild(contestLogElement, "events");
-        Map<String, Team> teams = parseTeams(getChildren(usersElement, "user"));
-        Map<String, Problem> problems = parseProblems(getChildren(problemsElement, "problem"));
-        Map<Integer, Submission> submissions = parseSubmissions(teams, problems, getChildren(eventsElement, "submit"));
+        if (name == null) {
+            throw new IllegalStateException("Contest name is missing");
+        }
 
         List<Team> teamList = new ArrayList<>(teams.values());
         List<Problem> problemList = new ArrayList<>(problems.values());
-        List<Submission> submissionList = new ArrayList<>(submissions.values());
         teamList.sort(Comparator.comparingInt(Team::getId));
         problemList.sort(Comparator.comparingInt(Problem::getId));
-        submissionList.sort((o1, o2) -> {
-            if (o1.getTime() != o2.getTime()) {
-                return Long.compare(o1.getTime(), o2.getTime());
-            }
-            return Integer.compare(o1.getId(), o2.getId());
-        });
-        return new Contest(name, duration, problemList, teamList, submissionList);
+        SubmissionOrdering.sort(submissions);
+        return new Contest(name, duration, problemList, teamList, submissions);
     }
 
-    private Node getChild(Node parent, String name) {
-        NodeList nodeList = parent.getChildNodes();
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node child = nodeList.item(i);
-            if (child.getNodeName().equals(name)) {
-                return child;
+    private void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                depth++;
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
             }
         }
-        throw new RuntimeException();
     }
 
-    private List<Node> getChildren(Node parent, String name) {
-        NodeList nodeList = parent.getChildNodes();
-        List<Node> result = new ArrayList<>();
-        for (int i = 0; i < nodeList.getLength(); i++) {
-            Node child = nodeList.item(i);
-            if (child.getNodeName().equals(name)) {
-                result.add(child);
-            }
-        }
-        return result;
-    }
-
-    private long parseDuration(Node durationElement) {
-        String value = durationElement.getTextContent();
+    private long parseDuration(String value) {
         String[] tokens = value.split(":");
         if (tokens.length != 3) {
             throw new RuntimeException();
@@ -85,62 +94,38 @@ public class YandexContestParser implements Parser {
         return h * 3600 + m * 60 + s;
     }
 
-    private Map<String, Team> parseTeams(List<Node> userNodes) {
-        Map<String, Team> teams = new HashMap<>();
-        int teamId = 0;
-        for (Node userNode : userNodes) {
-            NamedNodeMap attributes = userNode.getAttributes();
-            Node participationTypeNode = attributes.getNamedItem("participationType");
-            if (participationTypeNode == null) {
-                String userId = attributes.getNamedItem("id").getNodeValue();
-                String name = attributes.getNamedItem("displayedName").getNodeValue();
-                Team team = new Team(teamId, name);
-                teams.put(userId, team);
-                teamId++;
-            }
+    private void parseTeam(XMLStreamReader reader, Map<String, Team> teams) {
+        if (reader.getAttributeValue(null, "participationType") != null) {
+            return;
         }
-        return teams;
+        String userId = reader.getAttributeValue(null, "id");
+        String name = reader.getAttributeValue(null, "displayedName");
+        teams.put(userId, new Team(teams.size(), name));
     }
 
-    private Map<String, Problem> parseProblems(List<Node> problemNodes) {
-        Map<String, Problem> problems = new HashMap<>();
-        for (Node problemNode : problemNodes) {
-            NamedNodeMap attributes = problemNode.getAttributes();
-            String idStr = attributes.getNamedItem("title").getNodeValue();
-            String name = attributes.getNamedItem("longName").getNodeValue();
-            problems.put(idStr, new Problem(idStr.charAt(0), name));
-        }
-        return problems;
+    private void parseProblem(XMLStreamReader reader, Map<String, Problem> problems) {
+        String idStr = reader.getAttributeValue(null, "title");
+        String name = reader.getAttributeValue(null, "longName");
+        problems.put(idStr, new Problem(idStr.charAt(0), name));
     }
 
-    private Map<Integer, Submission> parseSubmissions(Map<String, Team> teams, Map<String, Problem> problems, List<Node> submitNodes) {
-        Map<TeamProblemKey, Integer> attempts = new HashMap<>();
-        Map<Integer, Submission> submissions = new HashMap<>();
-        int submissionId = 0;
-        for (Node submitNode : submitNodes) {
-            NamedNodeMap attributes = submitNode.getAttributes();
-
-            String userId = attributes.getNamedItem("userId").getNodeValue();
-            String problemTitle = attributes.getNamedItem("problemTitle").getNodeValue();
-            Team team = teams.get(userId);
-            Problem problem = problems.get(problemTitle);
-            if (team == null || problem == null) {
-                // probably, it is a hidden participant
-                continue;
-            }
-            TeamProblemKey key = new TeamProblemKey(team.getId(), problem.getId());
-
-            int attempt = attempts.getOrDefault(key, 0) + 1;
-            attempts.put(key, attempt);
+    private Submission parseSubmission(XMLStreamReader reader, Map<String, Team> teams, Map<String, Problem> problems,
+                                       int submissionId, AttemptCounter attempts) {
+        Team team = teams.get(reader.getAttributeValue(null, "userId"));
+        if (team == null) {
+            // probably, it is a hidden participant
+            return null;
+        }
+        Problem problem = problems.get(reader.getAttributeValue(null, "problemTitle"));
+        if (problem == null) {
+            return null;
+        }
+        int attempt = attempts.next(team.getId(), problem.getId());
 
-            long time = Long.parseLong(attributes.getNamedItem("contestTime").getNodeValue()) / 1000;
-            String verdict = attributes.getNamedItem("verdict").getNodeValue();
+        long time = Long.parseLong(reader.getAttributeValue(null, "contestTime")) / 1000;
+        String verdict = reader.getAttributeValue(null, "verdict");
 
-            Submission submission = new Submission(submissionId, team, problem, attempt, time, parseVerdict(verdict));
-            submissions.put(submissionId, submission);
-            submissionId++;
-        }
-        return submissions;
+        return new Submission(submissionId, team, problem, attempt, time, parseVerdict(verdict));
     }
 
     private static Verdict parseVerdict(String s) {
@@ -156,27 +141,4 @@ public class YandexContestParser implements Parser {
         }
         throw new IllegalArgumentException("Unknown verdict: " + s);
     }
-
-    private static class TeamProblemKey {
-        private final int teamId;
-        private final char problemId;
-
-        private TeamProblemKey(int teamId, char problemId) {
-            this.teamId = teamId;
-            this.problemId = problemId;
-        }
-
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) return true;
-            if (o == null || getClass() != o.getClass()) return false;
-            TeamProblemKey that = (TeamProblemKey) o;
-            return teamId == that.teamId && problemId == that.problemId;
-        }
-
-        @Override
-        public int hashCode() {
-            return Objects.hash(teamId, problemId);
-        }
-    }
 }
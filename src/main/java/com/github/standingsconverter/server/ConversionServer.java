@@ -0,0 +1,268 @@
+package com.github.standingsconverter.server;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.main.ClassFactory;
+import com.github.standingsconverter.outputter.Outputter;
+import com.github.standingsconverter.parser.CachingParser;
+import com.github.standingsconverter.parser.CodeforcesAPIParser;
+import com.github.standingsconverter.parser.ContestCache;
+import com.github.standingsconverter.parser.Parser;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Converts contests over HTTP in a warm JVM, so a conversion doesn't pay for the start of the JVM and the JIT.
+ * <p>
+ * {@code GET /formats} lists the parsers and the outputters. {@code POST /convert?parser=...&outputter=...} converts
+ * the log sent in the request body, or the file of the server given by the {@code input} parameter, and responds with
+ * the output. The {@code input} files are resolved against the input directory given to the server and must not lead
+ * out of it, and without the directory only sent logs are accepted. A sent log larger than the limit gets 413, and the
+ * CodeforcesAPIParser, whose input names a cache directory and makes requests to the API, takes only input files. The
+ * output is written to a temporary file first, since the outputters write files and a failed conversion must still
+ * get its error status before any of the body is sent. There is no authentication, so the server should listen on the
+ * loopback address unless every client of the network may convert logs. The parsed contests are kept in a
+ * {@link ContestCache}, by the parser and the SHA-256 of a sent log or by the path, size and modification time of a
+ * file, so converting the same log to another format skips the parsing. {@code GET /stats} shows the counters of the
+ * cache. The conversions run on a fixed pool of threads with a bounded queue, and a request which doesn't fit in the
+ * queue gets 503 at once.
+ */
+public class ConversionServer {
+    private final HttpServer server;
+    private final ThreadPoolExecutor executor;
+    private final ContestCache contests;
+    // null if the input files are not allowed
+    private final Path inputDirectory;
+    private final long maxUploadBytes;
+
+    public ConversionServer(InetSocketAddress address, File inputDirectory, int threads, int queueSize, long maxUploadBytes, ContestCache contests) throws IOException {
+        if (threads <= 0 || queueSize < 0 || maxUploadBytes < 0) {
+            throw new IllegalArgumentException("Wrong server parameters: " + threads + " threads, queue size " + queueSize + ", maximum upload " + maxUploadBytes);
+        }
+        this.maxUploadBytes = maxUploadBytes;
+        if (inputDirectory != null && !inputDirectory.isDirectory()) {
+            throw new IllegalArgumentException("Input directory " + inputDirectory + " doesn't exist");
+        }
+        this.inputDirectory = inputDirectory == null ? null : inputDirectory.getCanonicalFile().toPath();
+        BlockingQueue<Runnable> queue = queueSize == 0 ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueSize);
+        executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS, queue);
+        this.contests = contests;
+        server = HttpServer.create(address, 0);
+        server.createContext("/formats", this::handleFormats);
+        server.createContext("/convert", this::handleConvert);
+        server.createContext("/stats", this::handleStats);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // waits for the running conversions at most the given number of seconds
+    public void stop(int delaySeconds) throws InterruptedException {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        executor.shutdownNow();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    private void handleFormats(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, "Use GET");
+                return;
+            }
+            StringBuilder result = new StringBuilder();
+            for (String name : ClassFactory.getNames(Parser.class)) {
+                result.append("parser ").append(name).append('\n');
+            }
+            for (String name : ClassFactory.getNames(Outputter.class)) {
+                result.append("outputter ").append(name).append('\n');
+            }
+            send(exchange, 200, result.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStats(HttpExchange exchange) throws IOException {
+        try {
+            send(exchange, 200, contests.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    // runs in the thread of the server, so it only hands the request over to the pool
+    private void handleConvert(HttpExchange exchange) throws IOException {
+        try {
+            executor.execute(() -> {
+                try {
+                    convert(exchange);
+                } catch (IOException e) {
+                    // the client has gone, there is nobody to respond to
+                } finally {
+                    exchange.close();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            try {
+                send(exchange, 503, "Too many conversions, try again later");
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    private void convert(HttpExchange exchange) throws IOException {
+        if (!exchange.getRequestMethod().equals("POST")) {
+            send(exchange, 405, "Use POST");
+            return;
+        }
+        File inputFile = null;
+        File outputFile = null;
+        try {
+            // a malformed escape in the query is an IllegalArgumentException too
+            Map<String, String> parameters = parseQuery(exchange.getRequestURI().getRawQuery());
+            String parserName = parameters.get("parser");
+            String outputterName = parameters.get("outputter");
+            if (parserName == null || outputterName == null) {
+                send(exchange, 400, "Parameters parser and outputter are required");
+                return;
+            }
+            Parser parser = ClassFactory.createInstance(Parser.class, parserName);
+            Outputter outputter = ClassFactory.createInstance(Outputter.class, outputterName);
+            String input = parameters.get("input");
+            Contest contest;
+            if (input == null) {
+                // its input names a cache directory and makes requests to the API, which a client must not control
+                if (parser instanceof CodeforcesAPIParser) {
+                    send(exchange, 403, "Parser " + parser.getClass().getSimpleName() + " converts only input files of the server");
+                    return;
+                }
+                String contentLength = exchange.getRequestHeaders().getFirst("Content-Length");
+                if (contentLength != null && Long.parseLong(contentLength) > maxUploadBytes) {
+                    throw new UploadTooLargeException();
+                }
+                inputFile = File.createTempFile("standings-input", null);
+                String hash;
+                try (OutputStream outputStream = new FileOutputStream(inputFile)) {
+                    hash = copyAndHash(exchange.getRequestBody(), outputStream, maxUploadBytes);
+                }
+                String key = parser.getClass().getName() + ":" + hash;
+                contest = contests.get(key);
+                if (contest == null) {
+                    contest = parser.parse(inputFile.getPath());
+                    contests.put(key, contest);
+                }
+            } else {
+                if (inputDirectory == null) {
+                    send(exchange, 403, "Input files are not allowed by the server");
+                    return;
+                }
+                // the canonical path has no ".." and no symbolic links, so it shows where the file really is
+                File file = new File(inputDirectory.toFile(), input).getCanonicalFile();
+                if (!file.toPath().startsWith(inputDirectory)) {
+                    send(exchange, 403, "Input file is outside of the input directory: " + input);
+                    return;
+                }
+                if (!file.isFile()) {
+                    throw new FileNotFoundException("No such file: " + input);
+                }
+                contest = new CachingParser(parser, contests, false).parse(file.getPath());
+            }
+            outputFile = File.createTempFile("standings-output", null);
+            outputter.output(contest, outputFile.getPath());
+            exchange.getResponseHeaders().set("Content-Type", "application/octet-stream");
+            exchange.sendResponseHeaders(200, outputFile.length());
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                Files.copy(outputFile.toPath(), outputStream);
+            }
+        } catch (FileNotFoundException e) {
+            send(exchange, 404, e.getMessage());
+        } catch (UploadTooLargeException e) {
+            send(exchange, 413, "The log is larger than " + maxUploadBytes + " bytes");
+        } catch (IllegalArgumentException e) {
+            send(exchange, 400, e.getMessage());
+        } catch (IOException | RuntimeException e) {
+            // the details may show the files and the classes of the server, so they are logged and not sent
+            System.err.printf("Conversion failed: %s\n", e);
+            send(exchange, 500, "Conversion failed");
+        } finally {
+            deleteQuietly(inputFile);
+            deleteQuietly(outputFile);
+        }
+    }
+
+    // copies at most maxBytes bytes of the stream and returns its SHA-256 in hex
+    private static String copyAndHash(InputStream inputStream, OutputStream outputStream, long maxBytes) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+        DigestInputStream digestStream = new DigestInputStream(inputStream, digest);
+        byte[] buffer = new byte[1 << 16];
+        int count;
+        long total = 0;
+        while ((count = digestStream.read(buffer)) >= 0) {
+            total += count;
+            if (total > maxBytes) {
+                throw new UploadTooLargeException();
+            }
+            outputStream.write(buffer, 0, count);
+        }
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, String> parameters = new HashMap<>();
+        if (query == null) {
+            return parameters;
+        }
+        for (String pair : query.split("&")) {
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                parameters.put(URLDecoder.decode(pair.substring(0, equals), "UTF-8"), URLDecoder.decode(pair.substring(equals + 1), "UTF-8"));
+            }
+        }
+        return parameters;
+    }
+
+    private static void send(HttpExchange exchange, int code, String message) throws IOException {
+        byte[] body = (message + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(code, body.length);
+        try (OutputStream outputStream = exchange.getResponseBody()) {
+            outputStream.write(body);
+        }
+    }
+
+    private static class UploadTooLargeException extends IOException {
+    }
+
+    private static void deleteQuietly(File file) {
+        if (file != null && !file.delete()) {
+            file.deleteOnExit();
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.github.standingsconverter.standings;
+
+import java.util.Random;
+
+/**
+ * Order statistics treap over the teams. Every team is a node, the nodes are ordered by more solved problems, then by
+ * less penalty, then by the team index, and every node knows the size of its subtree, so the rank of a team and the
+ * team at a given position are found in O(log n).
+ * <p>
+ * The result of a team is packed into a single long key, and the links, the subtree size and the priority of a node
+ * lie next to each other in one array, so a step down the tree touches two cache lines at most.
+ */
+class RankTree {
+    private static final int NONE = -1;
+    private static final int MAX_SOLVED = (1 << 19) - 1;
+    private static final long MAX_PENALTY = (1L << 44) - 1;
+    private static final int LEFT = 0;
+    private static final int RIGHT = 1;
+    private static final int SIZE = 2;
+    private static final int PRIORITY = 3;
+    private static final int STRIDE = 4;
+
+    private final long[] keys;
+    private final int[] nodes;
+    private int root = NONE;
+    private int splitLeft;
+    private int splitRight;
+
+    RankTree(int teams) {
+        keys = new long[teams];
+        nodes = new int[teams * STRIDE];
+        Random random = new Random(teams);
+        for (int team = 0; team < teams; team++) {
+            keys[team] = key(0, 0);
+            nodes[team * STRIDE + PRIORITY] = random.nextInt();
+            insert(team);
+        }
+    }
+
+    // the smaller the key, the higher the team
+    private static long key(int solved, long penalty) {
+        if (solved < 0 || solved > MAX_SOLVED || penalty < 0 || penalty > MAX_PENALTY) {
+            throw new IllegalArgumentException("Result out of range: " + solved + " solved, penalty " + penalty);
+        }
+        return ((long) (MAX_SOLVED - solved) << 44) | penalty;
+    }
+
+    void update(int team, int solved, long penalty) {
+        long key = key(solved, penalty);
+        remove(team);
+        keys[team] = key;
+        insert(team);
+    }
+
+    // the number of teams which are strictly better than the given result
+    int countBetter(int solved, long penalty) {
+        long key = key(solved, penalty);
+        int count = 0;
+        int node = root;
+        while (node != NONE) {
+            if (keys[node] < key) {
+                count += size(link(node, LEFT)) + 1;
+                node = link(node, RIGHT);
+            } else {
+                node = link(node, LEFT);
+            }
+        }
+        return count;
+    }
+
+    // the zero-based position of the team in the standings
+    int position(int team) {
+        int count = 0;
+        int node = root;
+        while (node != team) {
+            if (before(node, team)) {
+                count += size(link(node, LEFT)) + 1;
+                node = link(node, RIGHT);
+            } else {
+                node = link(node, LEFT);
+            }
+        }
+        return count + size(link(team, LEFT));
+    }
+
+    // the team at the given zero-based position in the standings
+    int select(int position) {
+        int node = root;
+        while (node != NONE) {
+            int leftSize = size(link(node, LEFT));
+            if (position < leftSize) {
+                node = link(node, LEFT);
+            } else if (position == leftSize) {
+                return node;
+            } else {
+                position -= leftSize + 1;
+                node = link(node, RIGHT);
+            }
+        }
+        throw new IndexOutOfBoundsException("Position: " + position);
+    }
+
+    // all teams from the first to the last
+    int[] order() {
+        int[] order = new int[keys.length];
+        int[] stack = new int[keys.length];
+        int stackSize = 0;
+        int count = 0;
+        int node = root;
+        while (node != NONE || stackSize > 0) {
+            while (node != NONE) {
+                stack[stackSize++] = node;
+                node = link(node, LEFT);
+            }
+            node = stack[--stackSize];
+            order[count++] = node;
+            node = link(node, RIGHT);
+        }
+        return order;
+    }
+
+    private boolean before(int a, int b) {
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+
+    private int link(int node, int side) {
+        return nodes[node * STRIDE + side];
+    }
+
+    private int size(int node) {
+        return node == NONE ? 0 : nodes[node * STRIDE + SIZE];
+    }
+
+    private void updateSize(int node) {
+        nodes[node * STRIDE + SIZE] = size(link(node, LEFT)) + size(link(node, RIGHT)) + 1;
+    }
+
+    // descends while the nodes have higher priorities, then splits the rest of the subtree around the team
+    private void insert(int team) {
+        int priority = nodes[team * STRIDE + PRIORITY];
+        int parent = NONE;
+        int side = LEFT;
+        int node = root;
+        while (node != NONE && nodes[node * STRIDE + PRIORITY] > priority) {
+            nodes[node * STRIDE + SIZE]++;
+            parent = node;
+            side = before(team, node) ? LEFT : RIGHT;
+            node = link(node, side);
+        }
+        split(node, team);
+        nodes[team * STRIDE + LEFT] = splitLeft;
+        nodes[team * STRIDE + RIGHT] = splitRight;
+        updateSize(team);
+        setChild(parent, side, team);
+    }
+
+    // finds the team and replaces it with the merge of its children
+    private void remove(int team) {
+        int parent = NONE;
+        int side = LEFT;
+        int node = root;
+        while (node != team) {
+            nodes[node * STRIDE + SIZE]--;
+            parent = node;
+            side = before(team, node) ? LEFT : RIGHT;
+            node = link(node, side);
+        }
+        setChild(parent, side, merge(link(team, LEFT), link(team, RIGHT)));
+    }
+
+    private void setChild(int parent, int side, int child) {
+        if (parent == NONE) {
+            root = child;
+        } else {
+            nodes[parent * STRIDE + side] = child;
+        }
+    }
+
+    // splits the subtree into the nodes before the team and the rest, the roots go to splitLeft and splitRight
+    private void split(int node, int team) {
+        if (node == NONE) {
+            splitLeft = NONE;
+            splitRight = NONE;
+            return;
+        }
+        if (before(node, team)) {
+            split(link(node, RIGHT), team);
+            nodes[node * STRIDE + RIGHT] = splitLeft;
+            updateSize(node);
+            splitLeft = node;
+        } else {
+            split(link(node, LEFT), team);
+            nodes[node * STRIDE + LEFT] = splitRight;
+            updateSize(node);
+            splitRight = node;
+        }
+    }
+
+    private int merge(int a, int b) {
+        if (a == NONE) {
+            return b;
+        }
+        if (b == NONE) {
+            return a;
+        }
+        if (nodes[a * STRIDE + PRIORITY] > nodes[b * STRIDE + PRIORITY]) {
+            nodes[a * STRIDE + RIGHT] = merge(link(a, RIGHT), b);
+            updateSize(a);
+            return a;
+        } else {
+            nodes[b * STRIDE + LEFT] = merge(a, link(b, LEFT));
+            updateSize(b);
+            return b;
+        }
+    }
+}
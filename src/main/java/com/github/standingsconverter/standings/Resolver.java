@@ -0,0 +1,217 @@
+package com.github.standingsconverter.standings;
+
+import com.github.standingsconverter.entity.*;
+import com.github.standingsconverter.outputter.EjudgeOutputter;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Replays the unfreezing of the standings. The submissions before the freeze time give the frozen standings, and
+ * the later ones stay pending. Every step reveals the pending runs of one problem of the lowest placed team which
+ * still has any, starting from its leftmost problem, as the ICPC resolver does. The standings are updated
+ * incrementally by the {@link StandingsEngine}, so a step costs O(log n) plus the number of revealed runs.
+ */
+public class Resolver implements Iterator<Resolver.Step> {
+    // the same as the fog time written by the EjudgeOutputter
+    public static final long DEFAULT_FOG_TIME = EjudgeOutputter.FOG_TIME;
+
+    private final StandingsEngine engine;
+    private final SubmissionTable submissions;
+    private final int problemCount;
+    private final StandingsSnapshot frozenStandings;
+    // the rows of the pending runs grouped by cell, the runs of a cell are pendingRows[pendingStarts[cell]...]
+    private final int[] pendingStarts;
+    private final int[] pendingRows;
+    // every team reveals its problems from left to right, this is the next one to look at
+    private final int[] nextProblems;
+    private int position;
+    private Step next;
+
+    /**
+     * Creates a resolver for the standings frozen at the given time in seconds from the start of the contest.
+     */
+    public Resolver(Contest contest, long freezeTime) {
+        submissions = contest.getSubmissionTable();
+        List<Team> teams = submissions.getTeams();
+        problemCount = submissions.getProblems().size();
+        engine = new StandingsEngine(teams, submissions.getProblems());
+        pendingStarts = new int[teams.size() * problemCount + 1];
+        int pendingCount = 0;
+        SubmissionTable.Cursor submission = submissions.cursor();
+        while (submission.next()) {
+            if (submission.getTime() < freezeTime) {
+                engine.add(submission.getTeamIndex(), submission.getProblemIndex(), submission.getTime(), submission.getVerdict());
+            } else {
+                pendingStarts[submission.getTeamIndex() * problemCount + submission.getProblemIndex() + 1]++;
+                pendingCount++;
+            }
+        }
+        for (int i = 1; i < pendingStarts.length; i++) {
+            pendingStarts[i] += pendingStarts[i - 1];
+        }
+        pendingRows = new int[pendingCount];
+        int[] positions = new int[pendingStarts.length - 1];
+        System.arraycopy(pendingStarts, 0, positions, 0, positions.length);
+        for (int row = 0; row < submissions.size(); row++) {
+            if (submissions.getTime(row) >= freezeTime) {
+                pendingRows[positions[submissions.getTeamIndex(row) * problemCount + submissions.getProblemIndex(row)]++] = row;
+            }
+        }
+        nextProblems = new int[teams.size()];
+        frozenStandings = engine.snapshot();
+        position = teams.size() - 1;
+    }
+
+    // freezes the standings the given number of seconds before the end of the contest
+    public static Resolver withFogTime(Contest contest, long fogTime) {
+        return new Resolver(contest, contest.getDuration() * 60 - fogTime);
+    }
+
+    public StandingsSnapshot getFrozenStandings() {
+        return frozenStandings;
+    }
+
+    // the standings after the steps made so far, and the final ones when there are no more steps
+    public StandingsSnapshot getStandings() {
+        return engine.snapshot();
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null) {
+            next = findNext();
+        }
+        return next != null;
+    }
+
+    @Override
+    public Step next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Step step = next;
+        next = null;
+        return step;
+    }
+
+    // all teams below the position have nothing to reveal, and a revealed team can only move up
+    private Step findNext() {
+        while (position >= 0) {
+            int team = engine.getTeamAt(position);
+            int problem = nextPendingProblem(team);
+            if (problem >= 0) {
+                return reveal(team, problem);
+            }
+            position--;
+        }
+        return null;
+    }
+
+    private int nextPendingProblem(int team) {
+        for (int problem = nextProblems[team]; problem < problemCount; problem++) {
+            int cell = team * problemCount + problem;
+            // the runs after an accepted one before the freeze change nothing
+            if (pendingStarts[cell] < pendingStarts[cell + 1] && !engine.isSolved(team, problem)) {
+                nextProblems[team] = problem;
+                return problem;
+            }
+        }
+        nextProblems[team] = problemCount;
+        return -1;
+    }
+
+    private Step reveal(int team, int problem) {
+        int rankBefore = engine.getRank(team);
+        int positionBefore = position;
+        int cell = team * problemCount + problem;
+        boolean solved = false;
+        for (int i = pendingStarts[cell]; i < pendingStarts[cell + 1]; i++) {
+            int row = pendingRows[i];
+            solved |= engine.apply(team, problem, submissions.getTime(row), submissions.getVerdict(row));
+        }
+        nextProblems[team] = problem + 1;
+        return new Step(team, problem, pendingStarts[cell + 1] - pendingStarts[cell], solved,
+                rankBefore, engine.getRank(team), positionBefore, solved ? engine.getPosition(team) : positionBefore,
+                engine.getSolved(team), engine.getPenalty(team));
+    }
+
+    public class Step {
+        private final int teamIndex;
+        private final int problemIndex;
+        private final int runs;
+        private final boolean solved;
+        private final int rankBefore;
+        private final int rankAfter;
+        private final int positionBefore;
+        private final int positionAfter;
+        private final int solvedAfter;
+        private final long penaltyAfter;
+
+        private Step(int teamIndex, int problemIndex, int runs, boolean solved, int rankBefore, int rankAfter,
+                     int positionBefore, int positionAfter, int solvedAfter, long penaltyAfter) {
+            this.teamIndex = teamIndex;
+            this.problemIndex = problemIndex;
+            this.runs = runs;
+            this.solved = solved;
+            this.rankBefore = rankBefore;
+            this.rankAfter = rankAfter;
+            this.positionBefore = positionBefore;
+            this.positionAfter = positionAfter;
+            this.solvedAfter = solvedAfter;
+            this.penaltyAfter = penaltyAfter;
+        }
+
+        public Team getTeam() {
+            return submissions.getTeams().get(teamIndex);
+        }
+
+        public Problem getProblem() {
+            return submissions.getProblems().get(problemIndex);
+        }
+
+        public int getTeamIndex() {
+            return teamIndex;
+        }
+
+        public int getProblemIndex() {
+            return problemIndex;
+        }
+
+        // the number of pending runs revealed by this step
+        public int getRuns() {
+            return runs;
+        }
+
+        public boolean isSolved() {
+            return solved;
+        }
+
+        public int getRankBefore() {
+            return rankBefore;
+        }
+
+        public int getRankAfter() {
+            return rankAfter;
+        }
+
+        // zero-based positions in the standings, they differ from the ranks for the teams with equal results
+        public int getPositionBefore() {
+            return positionBefore;
+        }
+
+        public int getPositionAfter() {
+            return positionAfter;
+        }
+
+        public int getSolved() {
+            return solvedAfter;
+        }
+
+        // in minutes
+        public long getPenalty() {
+            return penaltyAfter;
+        }
+    }
+}
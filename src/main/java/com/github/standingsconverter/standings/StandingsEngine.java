@@ -0,0 +1,179 @@
+package com.github.standingsconverter.standings;
+
+import com.github.standingsconverter.entity.*;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Computes ICPC standings incrementally from submissions given in time order. A team is ranked by the number of
+ * solved problems and then by the penalty: the minutes from the start of the contest to every accepted run, plus
+ * {@value #PENALTY_PER_REJECTED_ATTEMPT} minutes for every rejected run before it. Compilation errors and the runs
+ * after the problem is solved don't count. A rejected run costs O(1), an accepted one O(log n) for moving the team in
+ * the {@link RankTree}, so a whole contest is ranked in a single pass.
+ */
+public class StandingsEngine {
+    public static final int PENALTY_PER_REJECTED_ATTEMPT = 20;
+    private static final int NONE = -1;
+
+    private final List<Team> teams;
+    private final List<Problem> problems;
+    private final Map<Team, Integer> teamIndexes = new IdentityHashMap<>();
+    private final Map<Problem, Integer> problemIndexes = new IdentityHashMap<>();
+    private final int[] rejectedAttempts;
+    private final long[] solveTimes;
+    private final int[] solved;
+    private final long[] penalties;
+    private final int[] firstToSolve;
+    private final long[] firstSolveTimes;
+    private final RankTree rankTree;
+    private long time = Long.MIN_VALUE;
+
+    public StandingsEngine(List<Team> teams, List<Problem> problems) {
+        if ((long) teams.size() * problems.size() > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Too many teams and problems: " + teams.size() + " * " + problems.size());
+        }
+        this.teams = teams;
+        this.problems = problems;
+        for (int i = 0; i < teams.size(); i++) {
+            teamIndexes.put(teams.get(i), i);
+        }
+        for (int i = 0; i < problems.size(); i++) {
+            problemIndexes.put(problems.get(i), i);
+        }
+        rejectedAttempts = new int[teams.size() * problems.size()];
+        solveTimes = new long[teams.size() * problems.size()];
+        Arrays.fill(solveTimes, NONE);
+        solved = new int[teams.size()];
+        penalties = new long[teams.size()];
+        firstToSolve = new int[problems.size()];
+        Arrays.fill(firstToSolve, NONE);
+        firstSolveTimes = new long[problems.size()];
+        rankTree = new RankTree(teams.size());
+    }
+
+    /**
+     * Ranks all submissions of the contest, taking them straight from its submission table.
+     */
+    public static StandingsEngine of(Contest contest) {
+        SubmissionTable submissions = contest.getSubmissionTable();
+        StandingsEngine engine = new StandingsEngine(submissions.getTeams(), submissions.getProblems());
+        SubmissionTable.Cursor submission = submissions.cursor();
+        while (submission.next()) {
+            engine.add(submission.getTeamIndex(), submission.getProblemIndex(), submission.getTime(), submission.getVerdict());
+        }
+        return engine;
+    }
+
+    public boolean add(Submission submission) {
+        Integer teamIndex = teamIndexes.get(submission.getTeam());
+        if (teamIndex == null) {
+            throw new IllegalArgumentException("Unknown team: " + submission.getTeam().getId());
+        }
+        Integer problemIndex = problemIndexes.get(submission.getProblem());
+        if (problemIndex == null) {
+            throw new IllegalArgumentException("Unknown problem: " + submission.getProblem().getId());
+        }
+        return add(teamIndex, problemIndex, submission.getTime(), submission.getVerdict());
+    }
+
+    /**
+     * Adds a submission given by the indexes of its team and problem and returns whether it changed the standings,
+     * i.e. solved a problem. The time is in seconds and must not be less than the time of the previous submission.
+     */
+    public boolean add(int teamIndex, int problemIndex, long time, Verdict verdict) {
+        if (teamIndex < 0 || teamIndex >= teams.size()) {
+            throw new IndexOutOfBoundsException("Team index: " + teamIndex + ", teams: " + teams.size());
+        }
+        if (problemIndex < 0 || problemIndex >= problems.size()) {
+            throw new IndexOutOfBoundsException("Problem index: " + problemIndex + ", problems: " + problems.size());
+        }
+        if (time < this.time) {
+            throw new IllegalArgumentException("Submission at " + time + " is added after the one at " + this.time);
+        }
+        this.time = time;
+        return apply(teamIndex, problemIndex, time, verdict);
+    }
+
+    // adds a submission without the check of the time order, the runs of every single cell must still go in order
+    boolean apply(int teamIndex, int problemIndex, long time, Verdict verdict) {
+        int cell = teamIndex * problems.size() + problemIndex;
+        if (solveTimes[cell] != NONE || verdict == Verdict.COMPILATION_ERROR) {
+            return false;
+        }
+        if (verdict != Verdict.ACCEPTED) {
+            rejectedAttempts[cell]++;
+            return false;
+        }
+        solveTimes[cell] = time;
+        if (firstToSolve[problemIndex] == NONE || time < firstSolveTimes[problemIndex]) {
+            firstToSolve[problemIndex] = teamIndex;
+            firstSolveTimes[problemIndex] = time;
+        }
+        solved[teamIndex]++;
+        penalties[teamIndex] += time / 60 + (long) PENALTY_PER_REJECTED_ATTEMPT * rejectedAttempts[cell];
+        rankTree.update(teamIndex, solved[teamIndex], penalties[teamIndex]);
+        return true;
+    }
+
+    boolean isSolved(int teamIndex, int problemIndex) {
+        return solveTimes[teamIndex * problems.size() + problemIndex] != NONE;
+    }
+
+    public List<Team> getTeams() {
+        return teams;
+    }
+
+    public List<Problem> getProblems() {
+        return problems;
+    }
+
+    // the time of the last added submission
+    public long getTime() {
+        return time;
+    }
+
+    public int getSolved(int teamIndex) {
+        return solved[teamIndex];
+    }
+
+    // in minutes
+    public long getPenalty(int teamIndex) {
+        return penalties[teamIndex];
+    }
+
+    // one-based, the teams with equal results share the rank
+    public int getRank(int teamIndex) {
+        return rankTree.countBetter(solved[teamIndex], penalties[teamIndex]) + 1;
+    }
+
+    // zero-based, the teams with equal results are ordered by their indexes
+    public int getPosition(int teamIndex) {
+        if (teamIndex < 0 || teamIndex >= teams.size()) {
+            throw new IndexOutOfBoundsException("Team index: " + teamIndex + ", teams: " + teams.size());
+        }
+        return rankTree.position(teamIndex);
+    }
+
+    // the index of the team at the zero-based position in the standings
+    public int getTeamAt(int position) {
+        if (position < 0 || position >= teams.size()) {
+            throw new IndexOutOfBoundsException("Position: " + position + ", teams: " + teams.size());
+        }
+        return rankTree.select(position);
+    }
+
+    public StandingsSnapshot snapshot() {
+        int[] order = rankTree.order();
+        int[] ranks = new int[teams.size()];
+        for (int position = 0; position < order.length; position++) {
+            int previous = position == 0 ? NONE : order[position - 1];
+            boolean tie = previous != NONE && solved[previous] == solved[order[position]] && penalties[previous] == penalties[order[position]];
+            ranks[position] = tie ? ranks[position - 1] : position + 1;
+        }
+        return new StandingsSnapshot(time, teams, problems, order, ranks, solved.clone(), penalties.clone(),
+                rejectedAttempts.clone(), solveTimes.clone(), firstToSolve.clone());
+    }
+}
@@ -0,0 +1,116 @@
+package com.github.standingsconverter.standings;
+
+import com.github.standingsconverter.entity.Problem;
+import com.github.standingsconverter.entity.Team;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * Immutable copy of the standings at some moment. The rows go from the first place to the last, and the teams with
+ * equal results are ordered by their indexes in the contest.
+ */
+public class StandingsSnapshot {
+    private final long time;
+    private final List<Team> teams;
+    private final List<Problem> problems;
+    private final int[] order;
+    private final int[] ranks;
+    private final int[] solved;
+    private final long[] penalties;
+    private final int[] rejectedAttempts;
+    private final long[] solveTimes;
+    private final int[] firstToSolve;
+
+    StandingsSnapshot(long time, List<Team> teams, List<Problem> problems, int[] order, int[] ranks, int[] solved,
+                      long[] penalties, int[] rejectedAttempts, long[] solveTimes, int[] firstToSolve) {
+        this.time = time;
+        this.teams = teams;
+        this.problems = problems;
+        this.order = order;
+        this.ranks = ranks;
+        this.solved = solved;
+        this.penalties = penalties;
+        this.rejectedAttempts = rejectedAttempts;
+        this.solveTimes = solveTimes;
+        this.firstToSolve = firstToSolve;
+    }
+
+    // the time of the last submission taken into account
+    public long getTime() {
+        return time;
+    }
+
+    public List<Problem> getProblems() {
+        return problems;
+    }
+
+    public List<Row> getRows() {
+        return new Rows();
+    }
+
+    private class Rows extends AbstractList<Row> implements RandomAccess {
+        @Override
+        public Row get(int position) {
+            return new Row(position);
+        }
+
+        @Override
+        public int size() {
+            return order.length;
+        }
+    }
+
+    public class Row {
+        private final int position;
+        private final int teamIndex;
+
+        private Row(int position) {
+            this.position = position;
+            this.teamIndex = order[position];
+        }
+
+        public int getRank() {
+            return ranks[position];
+        }
+
+        public Team getTeam() {
+            return teams.get(teamIndex);
+        }
+
+        public int getSolved() {
+            return solved[teamIndex];
+        }
+
+        // in minutes
+        public long getPenalty() {
+            return penalties[teamIndex];
+        }
+
+        public boolean isSolved(int problemIndex) {
+            return solveTimes[cell(problemIndex)] >= 0;
+        }
+
+        // in seconds, or -1 if the problem isn't solved
+        public long getSolveTime(int problemIndex) {
+            return solveTimes[cell(problemIndex)];
+        }
+
+        // the rejected runs before the accepted one, or all of them if the problem isn't solved
+        public int getRejectedAttempts(int problemIndex) {
+            return rejectedAttempts[cell(problemIndex)];
+        }
+
+        public boolean isFirstToSolve(int problemIndex) {
+            return firstToSolve[problemIndex] == teamIndex;
+        }
+
+        private int cell(int problemIndex) {
+            if (problemIndex < 0 || problemIndex >= problems.size()) {
+                throw new IndexOutOfBoundsException("Problem index: " + problemIndex + ", problems: " + problems.size());
+            }
+            return teamIndex * problems.size() + problemIndex;
+        }
+    }
+}
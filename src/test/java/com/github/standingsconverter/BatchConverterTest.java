@@ -0,0 +1,106 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.main.BatchConverter;
+import com.github.standingsconverter.outputter.Outputter;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+public class BatchConverterTest {
+    private static final File RESOURCES_DIRECTORY = new File("src/test/resources");
+
+    private File testDirectory;
+
+    // registered in META-INF/services of the test resources, fails as a deep recursion on a bad input would
+    public static class OverflowOutputter implements Outputter {
+        private static final Set<String> THREAD_NAMES = Collections.synchronizedSet(new HashSet<>());
+
+        @Override
+        public void output(Contest contest, String filename) {
+            THREAD_NAMES.add(Thread.currentThread().getName());
+            throw new StackOverflowError();
+        }
+    }
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private static String resource(String path) {
+        return "\"" + new File(RESOURCES_DIRECTORY, path).getAbsolutePath() + "\"";
+    }
+
+    @Test
+    public void testManifest() throws IOException, InterruptedException {
+        File manifestFile = new File(testDirectory, "manifest.txt");
+        FileUtils.writeStringToFile(manifestFile, "# parser outputter input output\n" +
+                "Ejudge Testsys " + resource("ejudge-to-testsys/ejudge-log-ssau-qual-2015.xml") + " ejudge.dat\n" +
+                "\n" +
+                "PCMS Testsys " + resource("pcms-to-testsys/pcms-log-neerc-2007.xml") + " \"pcms output.dat\"\n" +
+                "Testsys Ejudge " + resource("testsys-to-ejudge/testsys-log-ssau-qual-2015.dat") + " testsys.xml Testsys testsys.dat\n" +
+                "Ejudge Testsys missing.xml missing.dat\n" +
+                "Unknown Testsys " + resource("ejudge-to-testsys/ejudge-log-ssau-qual-2015.xml") + " unknown.dat\n");
+        List<BatchConverter.Job> jobs = BatchConverter.readManifest(manifestFile.getPath());
+        Assert.assertEquals(jobs.size(), 5);
+        Assert.assertEquals(jobs.get(1).getOutputFiles(), Collections.singletonList(new File(manifestFile.getAbsoluteFile().getParentFile(), "pcms output.dat").getPath()));
+        Assert.assertEquals(jobs.get(2).getOutputterNames(), Arrays.asList("Ejudge", "Testsys"));
+
+        BatchConverter.Summary summary = new BatchConverter(2).run(jobs);
+        Assert.assertEquals(summary.getResults().size(), 5);
+        Assert.assertEquals(summary.getSucceeded(), 3);
+        Assert.assertEquals(summary.getFailed(), 2);
+        Assert.assertNotNull(summary.getResults().get(3).getError());
+        Assert.assertNotNull(summary.getResults().get(4).getError());
+        assertSameContent(new File(testDirectory, "ejudge.dat"), "ejudge-to-testsys/testsys-log-ssau-qual-2015.dat");
+        assertSameContent(new File(testDirectory, "pcms output.dat"), "pcms-to-testsys/testsys-log-neerc-2007.dat");
+        assertSameContent(new File(testDirectory, "testsys.xml"), "testsys-to-ejudge/ejudge-log-ssau-qual-2015.xml");
+        assertSameContent(new File(testDirectory, "testsys.dat"), "testsys-to-ejudge/testsys-log-ssau-qual-2015.dat");
+    }
+
+    // an error of one job is its result, and the outputters of a job run in the thread of the job
+    @Test
+    public void testErrorIsolation() throws InterruptedException {
+        String input = new File(RESOURCES_DIRECTORY, "ejudge-to-testsys/ejudge-log-ssau-qual-2015.xml").getPath();
+        List<BatchConverter.Job> jobs = Arrays.asList(
+                new BatchConverter.Job("Ejudge", input, Arrays.asList("Testsys", "Overflow"),
+                        Arrays.asList(new File(testDirectory, "overflow.dat").getPath(), new File(testDirectory, "overflow.txt").getPath())),
+                new BatchConverter.Job("Ejudge", "Testsys", input, new File(testDirectory, "isolated.dat").getPath()));
+        OverflowOutputter.THREAD_NAMES.clear();
+        BatchConverter.Summary summary = new BatchConverter(2).run(jobs);
+        Assert.assertTrue(summary.getResults().get(0).getError() instanceof StackOverflowError);
+        Assert.assertNull(summary.getResults().get(1).getError());
+        Assert.assertTrue(new File(testDirectory, "overflow.dat").isFile());
+        Assert.assertEquals(OverflowOutputter.THREAD_NAMES.size(), 1);
+        Assert.assertFalse(OverflowOutputter.THREAD_NAMES.iterator().next().startsWith("outputter-"));
+    }
+
+    private static void assertSameContent(File actualFile, String expectedPath) throws IOException {
+        String actualContent = FileUtils.readFileToString(actualFile);
+        String expectedContent = FileUtils.readFileToString(new File(RESOURCES_DIRECTORY, expectedPath));
+        Assert.assertEquals(actualContent, expectedContent);
+    }
+}
@@ -0,0 +1,110 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.entity.SubmissionTable;
+import com.github.standingsconverter.generator.ContestGenerator;
+import com.github.standingsconverter.outputter.BinaryOutputter;
+import com.github.standingsconverter.outputter.TestsysOutputter;
+import com.github.standingsconverter.parser.BinaryParser;
+import com.github.standingsconverter.parser.EjudgeParser;
+import com.github.standingsconverter.parser.PCMSParser;
+import com.github.standingsconverter.parser.Parser;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.UUID;
+
+public class BinarySnapshotTest {
+    private File testDirectory;
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private void assertSnapshotKeepsContest(Parser parser, File inputFile, File expectedOutputFile) throws IOException {
+        File snapshotFile = new File(testDirectory, inputFile.getName() + ".bin");
+        new BinaryOutputter().output(parser.parse(inputFile.getPath()), snapshotFile.getPath());
+        Contest contest = new BinaryParser().parse(snapshotFile.getPath());
+        File actualOutputFile = new File(testDirectory, "actual_" + expectedOutputFile.getName());
+        new TestsysOutputter().output(contest, actualOutputFile.getPath());
+        Assert.assertEquals(FileUtils.readFileToString(actualOutputFile), FileUtils.readFileToString(expectedOutputFile));
+    }
+
+    @Test
+    public void testRealContests() throws IOException {
+        assertSnapshotKeepsContest(
+                new EjudgeParser(),
+                new File("src/test/resources/ejudge-to-testsys/ejudge-log-ssau-qual-2015.xml"),
+                new File("src/test/resources/ejudge-to-testsys/testsys-log-ssau-qual-2015.dat")
+        );
+        assertSnapshotKeepsContest(
+                new PCMSParser(),
+                new File("src/test/resources/pcms-to-testsys/pcms-log-neerc-2007.xml"),
+                new File("src/test/resources/pcms-to-testsys/testsys-log-neerc-2007.dat")
+        );
+    }
+
+    @Test
+    public void testGeneratedContest() throws IOException {
+        Contest expected = new ContestGenerator(19).setTeams(300).setSubmissions(20000).generate();
+        File snapshotFile = new File(testDirectory, "generated.bin");
+        new BinaryOutputter().output(expected, snapshotFile.getPath());
+        Contest actual = new BinaryParser().parse(snapshotFile.getPath());
+        Assert.assertEquals(actual.getName(), expected.getName());
+        Assert.assertEquals(actual.getDuration(), expected.getDuration());
+        Assert.assertEquals(actual.getTeams().size(), expected.getTeams().size());
+        Assert.assertEquals(actual.getProblems().size(), expected.getProblems().size());
+        SubmissionTable expectedTable = expected.getSubmissionTable();
+        SubmissionTable actualTable = actual.getSubmissionTable();
+        Assert.assertEquals(actualTable.size(), expectedTable.size());
+        for (int row = 0; row < expectedTable.size(); row++) {
+            Assert.assertEquals(actualTable.getId(row), expectedTable.getId(row));
+            Assert.assertEquals(actualTable.getTeam(row).getId(), expectedTable.getTeam(row).getId());
+            Assert.assertEquals(actualTable.getTeam(row).getName(), expectedTable.getTeam(row).getName());
+            Assert.assertEquals(actualTable.getProblem(row).getId(), expectedTable.getProblem(row).getId());
+            Assert.assertEquals(actualTable.getAttempt(row), expectedTable.getAttempt(row));
+            Assert.assertEquals(actualTable.getTime(row), expectedTable.getTime(row));
+            Assert.assertEquals(actualTable.getVerdict(row), expectedTable.getVerdict(row));
+        }
+        File testsysFile = new File(testDirectory, "generated.dat");
+        new TestsysOutputter().output(expected, testsysFile.getPath());
+        Assert.assertTrue(snapshotFile.length() * 3 < testsysFile.length(),
+                "Snapshot has " + snapshotFile.length() + " bytes, Testsys log has " + testsysFile.length());
+    }
+
+    @Test
+    public void testDamagedSnapshots() throws IOException {
+        File snapshotFile = new File(testDirectory, "damaged.bin");
+        new BinaryOutputter().output(new ContestGenerator(7).generate(), snapshotFile.getPath());
+        byte[] bytes = FileUtils.readFileToByteArray(snapshotFile);
+
+        byte[] flipped = bytes.clone();
+        flipped[flipped.length / 2] ^= 0x10;
+        FileUtils.writeByteArrayToFile(snapshotFile, flipped);
+        Assert.assertThrows(IOException.class, () -> new BinaryParser().parse(snapshotFile.getPath()));
+
+        FileUtils.writeByteArrayToFile(snapshotFile, Arrays.copyOf(bytes, bytes.length - 1));
+        Assert.assertThrows(IOException.class, () -> new BinaryParser().parse(snapshotFile.getPath()));
+
+        File testsysFile = new File("src/test/resources/testsys-to-ejudge/testsys-log-ssau-qual-2015.dat");
+        Assert.assertThrows(IOException.class, () -> new BinaryParser().parse(testsysFile.getPath()));
+    }
+}
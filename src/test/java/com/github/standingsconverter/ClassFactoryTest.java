@@ -1,13 +1,22 @@
 package com.github.standingsconverter;
 
+import com.github.standingsconverter.entity.Contest;
 import com.github.standingsconverter.main.ClassFactory;
 import com.github.standingsconverter.outputter.Outputter;
+import com.github.standingsconverter.outputter.TestsysOutputter;
 import com.github.standingsconverter.parser.EjudgeParser;
 import com.github.standingsconverter.parser.Parser;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 public class ClassFactoryTest {
+    // registered in META-INF/services of the test resources
+    public static class PluginOutputter implements Outputter {
+        @Override
+        public void output(Contest contest, String filename) {
+        }
+    }
+
     @Test
     public void testCreatingClasses() {
         assertClass(ClassFactory.createInstance(Parser.class, "EjudgeParser"), EjudgeParser.class);
@@ -27,6 +36,31 @@ public class ClassFactoryTest {
         Assert.assertThrows(() -> ClassFactory.createInstance(Outputter.class, "EjudgeParser"));
     }
 
+    // the names of the built-in classes are listed apart from the switch creating them, so every name must be created
+    @Test
+    public void testCreatingAllNames() {
+        for (Class<?> iface : new Class<?>[]{Parser.class, Outputter.class}) {
+            for (String name : ClassFactory.getNames(iface)) {
+                Object instance = ClassFactory.createInstance(iface, name);
+                Assert.assertTrue(iface.isInstance(instance), name);
+                Assert.assertEquals(instance.getClass().getSimpleName(), name);
+            }
+        }
+        Assert.assertEquals(ClassFactory.getNames(Parser.class).size(), 6);
+        Assert.assertEquals(ClassFactory.getNames(Outputter.class).size(), 7);
+    }
+
+    @Test
+    public void testServiceProviders() {
+        assertClass(ClassFactory.createInstance(Outputter.class, "Plugin"), PluginOutputter.class);
+        assertClass(ClassFactory.createInstance(Outputter.class, "pluginoutputter"), PluginOutputter.class);
+        assertClass(ClassFactory.createInstance(Outputter.class, "Testsys"), TestsysOutputter.class);
+        Assert.assertTrue(ClassFactory.getNames(Outputter.class).contains("PluginOutputter"));
+        Assert.assertTrue(ClassFactory.getNames(Outputter.class).contains("TestsysOutputter"));
+        Assert.assertFalse(ClassFactory.getNames(Parser.class).contains("PluginOutputter"));
+        Assert.assertThrows(() -> ClassFactory.createInstance(Parser.class, "Plugin"));
+    }
+
     private static <T> void assertClass(T actualObject, Class<? extends T> expectedClass) {
         Assert.assertEquals(actualObject.getClass(), expectedClass);
     }
@@ -0,0 +1,291 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.entity.SubmissionTable;
+import com.github.standingsconverter.entity.Verdict;
+import com.github.standingsconverter.outputter.TestsysOutputter;
+import com.github.standingsconverter.parser.CodeforcesAPIParser;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class CodeforcesAPIParserTest {
+    private static final File RESOURCES_DIRECTORY = new File("src/test/resources/codeforces-to-testsys");
+
+    private File testDirectory;
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+    // the stub imitates a running contest, showing only the given number of the oldest submissions
+    private volatile int visibleSubmissions = Integer.MAX_VALUE;
+    // replaces the verdict of the newest visible submission if not null
+    private volatile String newestVerdict = null;
+    // replaces the relative time of the newest visible submission if not null
+    private volatile Long newestTime = null;
+    // if set, every request waits until the latch is released by the given number of requests being in flight at once
+    private volatile CountDownLatch inFlightLatch = null;
+    private final AtomicInteger inFlightRequests = new AtomicInteger();
+    private final AtomicInteger maxInFlightRequests = new AtomicInteger();
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.createContext("/api/", exchange -> {
+            requests.add(exchange.getRequestURI().toString());
+            maxInFlightRequests.accumulateAndGet(inFlightRequests.incrementAndGet(), Math::max);
+            try {
+                CountDownLatch latch = inFlightLatch;
+                if (latch != null) {
+                    latch.countDown();
+                    latch.await(10, TimeUnit.SECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlightRequests.decrementAndGet();
+            }
+            String method = exchange.getRequestURI().getPath().substring("/api/".length());
+            File response = new File(RESOURCES_DIRECTORY, method + ".json");
+            if (!response.isFile()) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = FileUtils.readFileToByteArray(response);
+            if (method.equals("contest.status")) {
+                bytes = liveStatus(new String(bytes, StandardCharsets.UTF_8), exchange.getRequestURI().getQuery()).getBytes(StandardCharsets.UTF_8);
+            }
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        });
+        server.start();
+    }
+
+    @AfterClass
+    public void afterClass() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private String liveStatus(String recordedStatus, String query) {
+        JsonObject jsonStatus = new JsonParser().parse(recordedStatus).getAsJsonObject();
+        JsonArray jsonSubmissions = jsonStatus.getAsJsonArray("result");
+        JsonArray visible = new JsonArray();
+        for (int i = Math.max(0, jsonSubmissions.size() - visibleSubmissions); i < jsonSubmissions.size(); i++) {
+            visible.add(jsonSubmissions.get(i));
+        }
+        if ((newestVerdict != null || newestTime != null) && visible.size() > 0) {
+            JsonObject newest = visible.get(0).getAsJsonObject();
+            newest = new JsonParser().parse(newest.toString()).getAsJsonObject();
+            if (newestVerdict != null) {
+                newest.addProperty("verdict", newestVerdict);
+            }
+            if (newestTime != null) {
+                newest.addProperty("relativeTimeSeconds", newestTime);
+            }
+            visible.set(0, newest);
+        }
+        int from = 1;
+        int count = Integer.MAX_VALUE;
+        for (String parameter : query.split("&")) {
+            String[] keyValue = parameter.split("=");
+            if (keyValue[0].equals("from")) {
+                from = Integer.parseInt(keyValue[1]);
+            } else if (keyValue[0].equals("count")) {
+                count = Integer.parseInt(keyValue[1]);
+            }
+        }
+        JsonArray page = new JsonArray();
+        for (int i = from - 1; i < visible.size() && page.size() < count; i++) {
+            page.add(visible.get(i));
+        }
+        jsonStatus.add("result", page);
+        return jsonStatus.toString();
+    }
+
+    private String getApiUrl() {
+        return "http://localhost:" + server.getAddress().getPort() + "/api";
+    }
+
+    @Test
+    public void testRecordedResponses() throws IOException {
+        visibleSubmissions = Integer.MAX_VALUE;
+        newestVerdict = null;
+        requests.clear();
+        CodeforcesAPIParser parser = new CodeforcesAPIParser(getApiUrl());
+        Contest contest = parser.parse(new File(RESOURCES_DIRECTORY, "codeforces-api-stub-contest.properties").getAbsolutePath());
+        File actualOutputFile = new File(testDirectory, "actual_testsys-log-stub-contest.dat");
+        new TestsysOutputter().output(contest, actualOutputFile.getAbsolutePath());
+        String actualContent = FileUtils.readFileToString(actualOutputFile);
+        String expectedContent = FileUtils.readFileToString(new File(RESOURCES_DIRECTORY, "testsys-log-stub-contest.dat"));
+        Assert.assertEquals(actualContent, expectedContent);
+        // the standings and the status are requested concurrently, so the order is not fixed
+        Assert.assertEquals(requests.size(), 2);
+        Assert.assertEquals(new HashSet<>(requests), new HashSet<>(Arrays.asList(
+                "/api/contest.standings?contestId=100500&showUnofficial=true",
+                "/api/contest.status?contestId=100500")));
+    }
+
+    @Test
+    public void testConcurrentRequests() throws IOException {
+        visibleSubmissions = Integer.MAX_VALUE;
+        newestVerdict = null;
+        maxInFlightRequests.set(0);
+        // the standings and the status are answered only when both of them have been requested
+        inFlightLatch = new CountDownLatch(2);
+        try {
+            CodeforcesAPIParser parser = new CodeforcesAPIParser(getApiUrl());
+            Contest contest = parser.parse(new File(RESOURCES_DIRECTORY, "codeforces-api-stub-contest.properties").getAbsolutePath());
+            Assert.assertEquals(inFlightLatch.getCount(), 0);
+            Assert.assertEquals(maxInFlightRequests.get(), 2);
+            Assert.assertFalse(contest.getSubmissions().isEmpty());
+        } finally {
+            inFlightLatch = null;
+        }
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        visibleSubmissions = Integer.MAX_VALUE;
+        newestVerdict = null;
+        File propertiesFile = new File(testDirectory, "codeforces-api-cached-contest.properties");
+        String properties = FileUtils.readFileToString(new File(RESOURCES_DIRECTORY, "codeforces-api-stub-contest.properties"));
+        properties += "cacheDirectory = " + new File(testDirectory, "cache").getAbsolutePath().replace("\\", "/") + "\n";
+        FileUtils.writeStringToFile(propertiesFile, properties);
+        String expectedContent = FileUtils.readFileToString(new File(RESOURCES_DIRECTORY, "testsys-log-stub-contest.dat"));
+        for (int i = 0; i < 2; i++) {
+            requests.clear();
+            Contest contest = new CodeforcesAPIParser(getApiUrl()).parse(propertiesFile.getAbsolutePath());
+            // the contest is finished, so the second parse must be served from the cache only
+            Assert.assertEquals(requests.size(), i == 0 ? 2 : 0);
+            File actualOutputFile = new File(testDirectory, "actual_cached_" + i + "_testsys-log-stub-contest.dat");
+            new TestsysOutputter().output(contest, actualOutputFile.getAbsolutePath());
+            Assert.assertEquals(FileUtils.readFileToString(actualOutputFile), expectedContent);
+        }
+    }
+
+    @Test
+    public void testLiveUpdates() throws IOException {
+        String propertiesFile = new File(RESOURCES_DIRECTORY, "codeforces-api-stub-contest.properties").getAbsolutePath();
+        CodeforcesAPIParser parser = new CodeforcesAPIParser(getApiUrl());
+        Contest fullContest = new CodeforcesAPIParser(getApiUrl()).parse(propertiesFile);
+
+        visibleSubmissions = 20;
+        newestVerdict = "TESTING";
+        requests.clear();
+        Contest contest = parser.update(propertiesFile);
+        Assert.assertEquals(requests.size(), 2);
+        Assert.assertEquals(new HashSet<>(requests), new HashSet<>(Arrays.asList(
+                "/api/contest.standings?contestId=100500&showUnofficial=true",
+                "/api/contest.status?contestId=100500&count=1000&from=1")));
+        int partialSize = contest.getSubmissions().size();
+        Assert.assertTrue(partialSize > 0 && partialSize < fullContest.getSubmissions().size());
+
+        visibleSubmissions = Integer.MAX_VALUE;
+        newestVerdict = null;
+        requests.clear();
+        contest = parser.update(propertiesFile);
+        Assert.assertEquals(requests, Collections.singletonList("/api/contest.status?contestId=100500&count=1000&from=1"));
+        File actualOutputFile = new File(testDirectory, "actual_live_testsys-log-stub-contest.dat");
+        new TestsysOutputter().output(contest, actualOutputFile.getAbsolutePath());
+        String actualContent = FileUtils.readFileToString(actualOutputFile);
+        String expectedContent = FileUtils.readFileToString(new File(RESOURCES_DIRECTORY, "testsys-log-stub-contest.dat"));
+        Assert.assertEquals(actualContent, expectedContent);
+
+        // an unchanged poll returns a read-only snapshot of the live table, which is taken without copying the rows
+        requests.clear();
+        Contest unchangedContest = parser.update(propertiesFile);
+        Assert.assertEquals(requests.size(), 1);
+        Assert.assertEquals(unchangedContest.getSubmissions().size(), fullContest.getSubmissions().size());
+        SubmissionTable table = unchangedContest.getSubmissionTable();
+        Assert.assertThrows(UnsupportedOperationException.class, () -> table.add(0, 0, 0, 1, 0, Verdict.ACCEPTED));
+        new TestsysOutputter().output(unchangedContest, actualOutputFile.getAbsolutePath());
+        Assert.assertEquals(FileUtils.readFileToString(actualOutputFile), expectedContent);
+    }
+
+    // a new submission earlier than the known ones is merged into a new table, and the old snapshots stay as they were
+    @Test
+    public void testLiveEarlierSubmission() throws IOException {
+        String propertiesFile = new File(RESOURCES_DIRECTORY, "codeforces-api-stub-contest.properties").getAbsolutePath();
+        CodeforcesAPIParser parser = new CodeforcesAPIParser(getApiUrl());
+        visibleSubmissions = 20;
+        newestVerdict = null;
+        newestTime = null;
+        Contest partialContest = parser.update(propertiesFile);
+        int partialSize = partialContest.getSubmissions().size();
+
+        visibleSubmissions = Integer.MAX_VALUE;
+        newestTime = 0L;
+        try {
+            Contest contest = parser.update(propertiesFile);
+            Contest fullContest = new CodeforcesAPIParser(getApiUrl()).parse(propertiesFile);
+            Assert.assertEquals(partialContest.getSubmissions().size(), partialSize);
+            Assert.assertEquals(contest.getSubmissions().get(0).getTime(), 0);
+            File expectedOutputFile = new File(testDirectory, "expected_earlier_testsys-log-stub-contest.dat");
+            File actualOutputFile = new File(testDirectory, "actual_earlier_testsys-log-stub-contest.dat");
+            new TestsysOutputter().output(fullContest, expectedOutputFile.getAbsolutePath());
+            new TestsysOutputter().output(contest, actualOutputFile.getAbsolutePath());
+            Assert.assertEquals(FileUtils.readFileToString(actualOutputFile), FileUtils.readFileToString(expectedOutputFile));
+        } finally {
+            newestTime = null;
+        }
+    }
+
+    // a batch which fails in the middle must not consume any of its submissions
+    @Test
+    public void testFailedLiveBatch() throws IOException {
+        String propertiesFile = new File(RESOURCES_DIRECTORY, "codeforces-api-stub-contest.properties").getAbsolutePath();
+        CodeforcesAPIParser parser = new CodeforcesAPIParser(getApiUrl());
+        visibleSubmissions = 20;
+        newestVerdict = null;
+        int partialSize = parser.update(propertiesFile).getSubmissions().size();
+
+        visibleSubmissions = 40;
+        newestVerdict = "SKIPPED";
+        Assert.assertThrows(IllegalArgumentException.class, () -> parser.update(propertiesFile));
+
+        visibleSubmissions = Integer.MAX_VALUE;
+        newestVerdict = null;
+        Contest contest = parser.update(propertiesFile);
+        Assert.assertTrue(contest.getSubmissions().size() > partialSize);
+        File actualOutputFile = new File(testDirectory, "actual_failed_batch_testsys-log-stub-contest.dat");
+        new TestsysOutputter().output(contest, actualOutputFile.getAbsolutePath());
+        String expectedContent = FileUtils.readFileToString(new File(RESOURCES_DIRECTORY, "testsys-log-stub-contest.dat"));
+        Assert.assertEquals(FileUtils.readFileToString(actualOutputFile), expectedContent);
+    }
+}
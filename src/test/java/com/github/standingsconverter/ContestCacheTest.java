@@ -0,0 +1,157 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.generator.ContestGenerator;
+import com.github.standingsconverter.parser.CachingParser;
+import com.github.standingsconverter.parser.ContestCache;
+import com.github.standingsconverter.parser.Parser;
+import com.github.standingsconverter.parser.TestsysParser;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public class ContestCacheTest {
+    private File testDirectory;
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private static class CountingParser implements Parser {
+        private final Parser parser = new TestsysParser();
+        private int calls;
+
+        @Override
+        public Contest parse(String filename) throws IOException {
+            calls++;
+            return parser.parse(filename);
+        }
+    }
+
+    private static Contest generate(int submissions) {
+        return new ContestGenerator(24).setTeams(10).setSubmissions(submissions).generate();
+    }
+
+    @Test
+    public void testEviction() {
+        ContestCache cache = new ContestCache(1000);
+        Contest a = generate(400);
+        Contest b = generate(400);
+        cache.put("a", a);
+        cache.put("b", b);
+        Assert.assertSame(cache.get("a"), a);
+        // b is the least recently used one
+        cache.put("c", generate(400));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertSame(cache.get("a"), a);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getWeight(), 800);
+        // a contest heavier than the whole cache is not kept and evicts nothing
+        cache.put("d", generate(2000));
+        Assert.assertNull(cache.get("d"));
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getHits(), 2);
+        Assert.assertEquals(cache.getMisses(), 2);
+        Assert.assertEquals(cache.getEvictions(), 1);
+    }
+
+    @Test
+    public void testMaxSize() {
+        ContestCache cache = new ContestCache(Long.MAX_VALUE, 1);
+        Contest a = generate(400);
+        Contest b = generate(10);
+        cache.put("a", a);
+        cache.put("b", b);
+        Assert.assertNull(cache.get("a"));
+        Assert.assertSame(cache.get("b"), b);
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertEquals(cache.getWeight(), 10);
+        Assert.assertEquals(cache.getEvictions(), 1);
+        // the same key replaces the contest without evicting anything
+        cache.put("b", a);
+        Assert.assertSame(cache.get("b"), a);
+        Assert.assertEquals(cache.getWeight(), 400);
+        Assert.assertEquals(cache.getEvictions(), 1);
+    }
+
+    // polling a growing log caches each version under a new key, and only the last one is kept
+    @Test
+    public void testCachingParserKeepsLatest() throws IOException {
+        File inputFile = new File(testDirectory, "growing.dat");
+        File sourceFile = new File("src/test/resources/ejudge-to-testsys/testsys-log-ssau-qual-2015.dat");
+        FileUtils.copyFile(sourceFile, inputFile);
+        CountingParser countingParser = new CountingParser();
+        ContestCache cache = new ContestCache(Long.MAX_VALUE, 1);
+        Parser parser = new CachingParser(countingParser, cache, false);
+        for (int i = 0; i < 5; i++) {
+            parser.parse(inputFile.getPath());
+            parser.parse(inputFile.getPath());
+            FileUtils.write(inputFile, "\n", StandardCharsets.UTF_8, true);
+            Assert.assertEquals(cache.size(), 1);
+        }
+        Assert.assertEquals(countingParser.calls, 5);
+        Assert.assertEquals(cache.getEvictions(), 4);
+    }
+
+    @Test
+    public void testCachingParser() throws IOException {
+        File inputFile = new File(testDirectory, "log.dat");
+        FileUtils.copyFile(new File("src/test/resources/ejudge-to-testsys/testsys-log-ssau-qual-2015.dat"), inputFile);
+        CountingParser parser = new CountingParser();
+        ContestCache cache = new ContestCache(ContestCache.DEFAULT_MAX_WEIGHT);
+        Parser cachingParser = new CachingParser(parser, cache, false);
+        Contest contest = cachingParser.parse(inputFile.getPath());
+        Assert.assertSame(cachingParser.parse(inputFile.getPath()), contest);
+        Assert.assertEquals(parser.calls, 1);
+
+        Assert.assertTrue(inputFile.setLastModified(inputFile.lastModified() - 10000));
+        Assert.assertNotSame(cachingParser.parse(inputFile.getPath()), contest);
+        Assert.assertEquals(parser.calls, 2);
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 2);
+    }
+
+    // a rewrite which keeps the size and the modification time is only noticed by the content hash
+    @Test
+    public void testContentHash() throws IOException {
+        File inputFile = new File(testDirectory, "hashed.dat");
+        String log = FileUtils.readFileToString(new File("src/test/resources/ejudge-to-testsys/testsys-log-ssau-qual-2015.dat"), StandardCharsets.UTF_8);
+        FileUtils.writeStringToFile(inputFile, log, StandardCharsets.UTF_8);
+        long lastModified = inputFile.lastModified();
+        CountingParser parser = new CountingParser();
+        ContestCache cache = new ContestCache(ContestCache.DEFAULT_MAX_WEIGHT);
+        Parser plainParser = new CachingParser(parser, cache, false);
+        Parser hashingParser = new CachingParser(parser, cache, true);
+        plainParser.parse(inputFile.getPath());
+        hashingParser.parse(inputFile.getPath());
+        hashingParser.parse(inputFile.getPath());
+        Assert.assertEquals(parser.calls, 2);
+
+        int at = log.lastIndexOf(",OK");
+        FileUtils.writeStringToFile(inputFile, log.substring(0, at) + ",WA" + log.substring(at + 3), StandardCharsets.UTF_8);
+        Assert.assertTrue(inputFile.setLastModified(lastModified));
+        plainParser.parse(inputFile.getPath());
+        Assert.assertEquals(parser.calls, 2);
+        hashingParser.parse(inputFile.getPath());
+        Assert.assertEquals(parser.calls, 3);
+    }
+}
@@ -0,0 +1,136 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.*;
+import com.github.standingsconverter.generator.ContestFormats;
+import com.github.standingsconverter.generator.ContestGenerator;
+import com.github.standingsconverter.outputter.TestsysOutputter;
+import com.github.standingsconverter.parser.*;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+public class ContestGeneratorTest {
+    private File testDirectory;
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private static ContestGenerator createGenerator() {
+        return new ContestGenerator(2019)
+                .setTeams(40)
+                .setProblems(9)
+                .setSubmissions(3000)
+                .setTimeSkew(1.5)
+                .setVerdictWeight(Verdict.REJECTED, 3);
+    }
+
+    @Test
+    public void testDeterminism() throws IOException {
+        File first = new File(testDirectory, "first.dat");
+        File second = new File(testDirectory, "second.dat");
+        new TestsysOutputter().output(createGenerator().generate(), first.getPath());
+        new TestsysOutputter().output(createGenerator().generate(), second.getPath());
+        Assert.assertEquals(FileUtils.readFileToString(first), FileUtils.readFileToString(second));
+        File other = new File(testDirectory, "other.dat");
+        new TestsysOutputter().output(new ContestGenerator(2020).generate(), other.getPath());
+        Assert.assertNotEquals(FileUtils.readFileToString(other), FileUtils.readFileToString(first));
+    }
+
+    @Test
+    public void testAllFormats() throws IOException {
+        Contest contest = createGenerator().generate();
+        Assert.assertEquals(contest.getTeams().size(), 40);
+        Assert.assertEquals(contest.getProblems().size(), 9);
+        Assert.assertEquals(contest.getSubmissions().size(), 3000);
+
+        File ejudgeFile = new File(testDirectory, "ejudge.xml");
+        ContestFormats.writeEjudge(contest, ejudgeFile);
+        assertSameSubmissions(new EjudgeParser().parse(ejudgeFile.getPath()), contest, false);
+
+        File pcmsFile = new File(testDirectory, "pcms.xml");
+        ContestFormats.writePCMS(contest, pcmsFile);
+        assertSameSubmissions(new PCMSParser().parse(pcmsFile.getPath()), contest, true);
+
+        File testsysFile = new File(testDirectory, "testsys.dat");
+        ContestFormats.writeTestsys(contest, testsysFile);
+        assertSameSubmissions(new TestsysParser().parse(testsysFile.getPath()), contest, false);
+
+        File yandexContestFile = new File(testDirectory, "yandexcontest.xml");
+        ContestFormats.writeYandexContest(contest, yandexContestFile);
+        Contest yandexContest = new YandexContestParser().parse(yandexContestFile.getPath());
+        Assert.assertEquals(yandexContest.getName(), contest.getName());
+        Assert.assertEquals(yandexContest.getDuration(), contest.getDuration());
+
+        File codeforcesDirectory = new File(testDirectory, "codeforces");
+        File propertiesFile = ContestFormats.writeCodeforces(contest, codeforcesDirectory);
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/api/", exchange -> {
+            String method = exchange.getRequestURI().getPath().substring("/api/".length());
+            byte[] bytes = FileUtils.readFileToByteArray(new File(codeforcesDirectory, method + ".json"));
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream outputStream = exchange.getResponseBody()) {
+                outputStream.write(bytes);
+            }
+        });
+        server.start();
+        try {
+            CodeforcesAPIParser parser = new CodeforcesAPIParser("http://localhost:" + server.getAddress().getPort() + "/api");
+            assertSameSubmissions(parser.parse(propertiesFile.getPath()), contest, false);
+        } finally {
+            server.stop(0);
+        }
+    }
+
+    // the parsers number teams in the order of appearance and may order submissions of the same time differently
+    private static void assertSameSubmissions(Contest actual, Contest expected, boolean onlyAccepted) {
+        Assert.assertEquals(actual.getDuration(), expected.getDuration());
+        Assert.assertEquals(actual.getProblems().size(), expected.getProblems().size());
+        Assert.assertEquals(actual.getTeams().size(), expected.getTeams().size());
+        for (int i = 0; i < expected.getTeams().size(); i++) {
+            Assert.assertEquals(actual.getTeams().get(i).getId(), expected.getTeams().get(i).getId());
+        }
+        Assert.assertEquals(describe(actual.getSubmissions(), onlyAccepted), describe(expected.getSubmissions(), onlyAccepted));
+    }
+
+    private static List<String> describe(List<Submission> submissions, boolean onlyAccepted) {
+        List<String> result = new ArrayList<>(submissions.size());
+        long previousTime = Long.MIN_VALUE;
+        for (Submission submission : submissions) {
+            Assert.assertTrue(submission.getTime() >= previousTime, "Submissions are not ordered by time");
+            previousTime = submission.getTime();
+            Verdict verdict = submission.getVerdict();
+            if (onlyAccepted && verdict != Verdict.ACCEPTED) {
+                verdict = Verdict.REJECTED;
+            }
+            result.add(String.format("%08d %d %c %d %s", submission.getTime(), submission.getTeam().getId(),
+                    submission.getProblem().getId(), submission.getAttempt(), verdict));
+        }
+        Collections.sort(result);
+        return result;
+    }
+}
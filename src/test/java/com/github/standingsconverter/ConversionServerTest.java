@@ -0,0 +1,153 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.parser.ContestCache;
+import com.github.standingsconverter.server.ConversionServer;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+public class ConversionServerTest {
+    private static final File EJUDGE_LOG = new File("src/test/resources/ejudge-to-testsys/ejudge-log-ssau-qual-2015.xml");
+    private static final File TESTSYS_LOG = new File("src/test/resources/ejudge-to-testsys/testsys-log-ssau-qual-2015.dat");
+    private static final long MAX_UPLOAD_BYTES = 1 << 20;
+    private static final long RESTRICTED_MAX_UPLOAD_BYTES = 1000;
+    private static final InetSocketAddress ADDRESS = new InetSocketAddress(InetAddress.getLoopbackAddress(), 0);
+
+    private ConversionServer server;
+    // without input files and with a small limit of the sent logs
+    private ConversionServer restrictedServer;
+
+    @BeforeClass
+    public void beforeClass() throws IOException {
+        server = new ConversionServer(ADDRESS, EJUDGE_LOG.getParentFile(), 2, 4, MAX_UPLOAD_BYTES, new ContestCache(ContestCache.DEFAULT_MAX_WEIGHT));
+        server.start();
+        restrictedServer = new ConversionServer(ADDRESS, null, 1, 0, RESTRICTED_MAX_UPLOAD_BYTES, new ContestCache(ContestCache.DEFAULT_MAX_WEIGHT));
+        restrictedServer.start();
+    }
+
+    @AfterClass
+    public void afterClass() throws InterruptedException {
+        server.stop(0);
+        restrictedServer.stop(0);
+    }
+
+    private static class Response {
+        private final int code;
+        private final String body;
+
+        private Response(int code, String body) {
+            this.code = code;
+            this.body = body;
+        }
+    }
+
+    private Response request(String method, String path, byte[] body) throws IOException {
+        return request(server, method, path, body, false);
+    }
+
+    private static Response request(ConversionServer server, String method, String path, byte[] body, boolean chunked) throws IOException {
+        URL url = new URL("http", server.getAddress().getHostString(), server.getAddress().getPort(), path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            connection.setRequestMethod(method);
+            if (body != null) {
+                connection.setDoOutput(true);
+                if (chunked) {
+                    connection.setChunkedStreamingMode(256);
+                }
+                try (OutputStream outputStream = connection.getOutputStream()) {
+                    outputStream.write(body);
+                }
+            }
+            int code = connection.getResponseCode();
+            try (InputStream inputStream = code == 200 ? connection.getInputStream() : connection.getErrorStream()) {
+                return new Response(code, IOUtils.toString(inputStream, StandardCharsets.UTF_8));
+            }
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    @Test
+    public void testFormats() throws IOException {
+        Response response = request("GET", "/formats", null);
+        Assert.assertEquals(response.code, 200);
+        Assert.assertTrue(response.body.contains("parser EjudgeParser\n"));
+        Assert.assertTrue(response.body.contains("outputter TestsysOutputter\n"));
+    }
+
+    @Test
+    public void testConvert() throws IOException {
+        String expected = FileUtils.readFileToString(TESTSYS_LOG);
+        byte[] log = FileUtils.readFileToByteArray(EJUDGE_LOG);
+        // the second conversion takes the parsed contest from the cache
+        for (int i = 0; i < 2; i++) {
+            Response response = request("POST", "/convert?parser=ejudge&outputter=testsys", log);
+            Assert.assertEquals(response.code, 200);
+            Assert.assertEquals(response.body, expected);
+        }
+        String input = URLEncoder.encode(EJUDGE_LOG.getName(), "UTF-8");
+        Response response = request("POST", "/convert?parser=ejudge&outputter=testsys&input=" + input, null);
+        Assert.assertEquals(response.code, 200);
+        Assert.assertEquals(response.body, expected);
+    }
+
+    @Test
+    public void testInputOutsideDirectory() throws IOException {
+        String[] inputs = {"../ejudge-to-testsys/" + EJUDGE_LOG.getName(), "../../../../pom.xml", "..", "/../../pom.xml"};
+        for (String input : inputs) {
+            String path = "/convert?parser=ejudge&outputter=testsys&input=" + URLEncoder.encode(input, "UTF-8");
+            int expectedCode = input.startsWith("../ejudge-to-testsys/") ? 200 : 403;
+            Assert.assertEquals(request("POST", path, null).code, expectedCode, input);
+        }
+        String path = "/convert?parser=ejudge&outputter=testsys&input=" + URLEncoder.encode(EJUDGE_LOG.getName(), "UTF-8");
+        Assert.assertEquals(request(restrictedServer, "POST", path, null, false).code, 403);
+    }
+
+    @Test
+    public void testErrors() throws IOException {
+        Assert.assertEquals(request("POST", "/convert?parser=nothing&outputter=testsys", new byte[0]).code, 400);
+        Assert.assertEquals(request("POST", "/convert?parser=ejudge", new byte[0]).code, 400);
+        Assert.assertEquals(request("GET", "/convert?parser=ejudge&outputter=testsys", null).code, 405);
+        Assert.assertEquals(request("POST", "/convert?parser=ejudge&outputter=testsys&input=no-such-log.xml", null).code, 404);
+        // a broken log is a failure of the conversion, and its details stay on the server
+        Response response = request("POST", "/convert?parser=ejudge&outputter=testsys", "<runlog".getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(response.code, 500);
+        Assert.assertEquals(response.body, "Conversion failed\n");
+        Assert.assertEquals(request("POST", "/convert?parser=%zz&outputter=testsys", new byte[0]).code, 400);
+        Assert.assertEquals(request("POST", "/convert?parser=ejudge&outputter=testsys%", new byte[0]).code, 400);
+    }
+
+    // the length is checked before reading the body if it is known, and while copying it if it is chunked
+    @Test
+    public void testUploadTooLarge() throws IOException {
+        byte[] log = new byte[(int) RESTRICTED_MAX_UPLOAD_BYTES + 1];
+        Assert.assertEquals(request(restrictedServer, "POST", "/convert?parser=ejudge&outputter=testsys", log, false).code, 413);
+        Assert.assertEquals(request(restrictedServer, "POST", "/convert?parser=ejudge&outputter=testsys", log, true).code, 413);
+    }
+
+    // the properties would make the server write and evict files in any directory and make requests to the API
+    @Test
+    public void testCodeforcesUploadRefused() throws IOException {
+        File cacheDirectory = new File("ConversionServerTest_" + UUID.randomUUID());
+        String properties = "contestId=1\ncacheDirectory=" + cacheDirectory.getAbsolutePath().replace("\\", "/") + "\ncacheMaxSizeMegabytes=0\n";
+        Response response = request("POST", "/convert?parser=codeforcesapi&outputter=testsys", properties.getBytes(StandardCharsets.UTF_8));
+        Assert.assertEquals(response.code, 403);
+        Assert.assertFalse(cacheDirectory.exists());
+    }
+}
@@ -0,0 +1,137 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.*;
+import com.github.standingsconverter.generator.ContestGenerator;
+import com.github.standingsconverter.outputter.ResolverOutputter;
+import com.github.standingsconverter.standings.Resolver;
+import com.github.standingsconverter.standings.StandingsEngine;
+import com.github.standingsconverter.standings.StandingsSnapshot;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class ResolverTest {
+    private File testDirectory;
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    // the standings are frozen at 14400 seconds with the default fog time
+    private static Contest createContest() {
+        List<Problem> problems = Arrays.asList(new Problem('X', "Xylophone"), new Problem('Y', "Yacht"));
+        List<Team> teams = Arrays.asList(new Team(1, "Alpha"), new Team(2, "Beta"), new Team(3, "Gamma"));
+        List<Submission> submissions = new ArrayList<>();
+        submissions.add(new Submission(1, teams.get(0), problems.get(0), 1, 600, Verdict.ACCEPTED));
+        submissions.add(new Submission(2, teams.get(1), problems.get(0), 1, 1200, Verdict.ACCEPTED));
+        submissions.add(new Submission(3, teams.get(1), problems.get(0), 2, 14500, Verdict.WRONG_ANSWER));
+        submissions.add(new Submission(4, teams.get(2), problems.get(0), 1, 15000, Verdict.ACCEPTED));
+        submissions.add(new Submission(5, teams.get(2), problems.get(1), 1, 15100, Verdict.WRONG_ANSWER));
+        submissions.add(new Submission(6, teams.get(1), problems.get(1), 1, 16000, Verdict.ACCEPTED));
+        submissions.add(new Submission(7, teams.get(0), problems.get(1), 1, 17000, Verdict.COMPILATION_ERROR));
+        return new Contest("Resolver", 300, problems, teams, submissions);
+    }
+
+    @Test
+    public void testSteps() {
+        Resolver resolver = Resolver.withFogTime(createContest(), Resolver.DEFAULT_FOG_TIME);
+        Assert.assertEquals(resolver.getFrozenStandings().getRows().get(2).getTeam().getName(), "Gamma");
+
+        Resolver.Step step = resolver.next();
+        Assert.assertEquals(step.getTeam().getName(), "Gamma");
+        Assert.assertEquals(step.getProblem().getId(), 'X');
+        Assert.assertTrue(step.isSolved());
+        Assert.assertEquals(step.getRankBefore(), 3);
+        Assert.assertEquals(step.getRankAfter(), 3);
+        Assert.assertEquals(step.getPenalty(), 250);
+
+        step = resolver.next();
+        Assert.assertEquals(step.getTeam().getName(), "Gamma");
+        Assert.assertEquals(step.getProblem().getId(), 'Y');
+        Assert.assertFalse(step.isSolved());
+
+        // the wrong answer of Beta on the solved problem X reveals nothing
+        step = resolver.next();
+        Assert.assertEquals(step.getTeam().getName(), "Beta");
+        Assert.assertEquals(step.getProblem().getId(), 'Y');
+        Assert.assertTrue(step.isSolved());
+        Assert.assertEquals(step.getRankBefore(), 2);
+        Assert.assertEquals(step.getRankAfter(), 1);
+        Assert.assertEquals(step.getPositionBefore(), 1);
+        Assert.assertEquals(step.getPositionAfter(), 0);
+        Assert.assertEquals(step.getPenalty(), 20 + 266);
+
+        step = resolver.next();
+        Assert.assertEquals(step.getTeam().getName(), "Alpha");
+        Assert.assertEquals(step.getRuns(), 1);
+        Assert.assertFalse(step.isSolved());
+        Assert.assertEquals(step.getRankBefore(), 2);
+
+        Assert.assertFalse(resolver.hasNext());
+        Assert.assertEquals(resolver.getStandings().getRows().get(0).getTeam().getName(), "Beta");
+        Assert.assertEquals(resolver.getFrozenStandings().getRows().get(0).getTeam().getName(), "Alpha");
+    }
+
+    @Test
+    public void testOutputter() throws IOException {
+        File outputFile = new File(testDirectory, "resolver.csv");
+        new ResolverOutputter().output(createContest(), outputFile.getPath());
+        String separator = System.lineSeparator();
+        String expected = "Team,Problem,Runs,Solved,RankBefore,RankAfter,SolvedAfter,PenaltyAfter" + separator
+                + "\"Gamma\",X,1,yes,3,3,1,250" + separator
+                + "\"Gamma\",Y,1,no,3,3,1,250" + separator
+                + "\"Beta\",Y,1,yes,2,1,2,286" + separator
+                + "\"Alpha\",Y,1,no,2,2,1,10" + separator;
+        Assert.assertEquals(FileUtils.readFileToString(outputFile), expected);
+    }
+
+    @Test
+    public void testGeneratedContest() {
+        Contest contest = new ContestGenerator(21).setTeams(500).setSubmissions(50000).setTimeSkew(1).generate();
+        Resolver resolver = Resolver.withFogTime(contest, Resolver.DEFAULT_FOG_TIME);
+        int steps = 0;
+        int previousPosition = Integer.MAX_VALUE;
+        while (resolver.hasNext()) {
+            Resolver.Step step = resolver.next();
+            Assert.assertTrue(step.getPositionBefore() <= previousPosition);
+            Assert.assertTrue(step.getPositionAfter() <= step.getPositionBefore());
+            Assert.assertTrue(step.getRankAfter() <= step.getRankBefore());
+            previousPosition = step.getPositionBefore();
+            steps++;
+        }
+        Assert.assertTrue(steps > 1000, "Only " + steps + " steps");
+        StandingsSnapshot expected = StandingsEngine.of(contest).snapshot();
+        StandingsSnapshot actual = resolver.getStandings();
+        for (int i = 0; i < contest.getTeams().size(); i++) {
+            StandingsSnapshot.Row expectedRow = expected.getRows().get(i);
+            StandingsSnapshot.Row actualRow = actual.getRows().get(i);
+            Assert.assertSame(actualRow.getTeam(), expectedRow.getTeam());
+            Assert.assertEquals(actualRow.getRank(), expectedRow.getRank());
+            Assert.assertEquals(actualRow.getPenalty(), expectedRow.getPenalty());
+            for (int problem = 0; problem < contest.getProblems().size(); problem++) {
+                Assert.assertEquals(actualRow.isFirstToSolve(problem), expectedRow.isFirstToSolve(problem));
+            }
+        }
+    }
+}
@@ -156,6 +156,17 @@ public class StandingsConverterTest {
         testInfo.runTest();
     }
 
+    @Test
+    public void test10() throws IOException {
+        TestInfo testInfo = new TestInfo(
+                new TestsysParser(),
+                new EjudgeOutputter(),
+                new File("src/test/resources/testsys-to-ejudge/testsys-log-ssau-qual-2015.dat"),
+                new File("src/test/resources/testsys-to-ejudge/ejudge-log-ssau-qual-2015.xml")
+        );
+        testInfo.runTest();
+    }
+
     @Test(enabled = false) // disabled for auto-testing as Codeforces may be unavailable
     public void remoteTest1() throws IOException {
         TestInfo testInfo = new TestInfo(
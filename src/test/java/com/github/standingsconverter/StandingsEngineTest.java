@@ -0,0 +1,164 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.*;
+import com.github.standingsconverter.generator.ContestGenerator;
+import com.github.standingsconverter.outputter.StandingsOutputter;
+import com.github.standingsconverter.standings.StandingsEngine;
+import com.github.standingsconverter.standings.StandingsSnapshot;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class StandingsEngineTest {
+    private File testDirectory;
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private static Contest createContest() {
+        List<Problem> problems = Arrays.asList(new Problem('A', "Apples"), new Problem('B', "Bananas"));
+        List<Team> teams = Arrays.asList(new Team(1, "Alpha"), new Team(2, "Beta \"B\""), new Team(3, "Gamma"), new Team(4, "Delta"));
+        List<Submission> submissions = new ArrayList<>();
+        submissions.add(new Submission(1, teams.get(1), problems.get(0), 1, 300, Verdict.WRONG_ANSWER));
+        submissions.add(new Submission(2, teams.get(1), problems.get(0), 2, 400, Verdict.COMPILATION_ERROR));
+        submissions.add(new Submission(3, teams.get(0), problems.get(0), 1, 659, Verdict.ACCEPTED));
+        submissions.add(new Submission(4, teams.get(1), problems.get(0), 3, 900, Verdict.ACCEPTED));
+        submissions.add(new Submission(5, teams.get(1), problems.get(0), 4, 1000, Verdict.WRONG_ANSWER));
+        submissions.add(new Submission(6, teams.get(2), problems.get(1), 1, 1200, Verdict.TIME_LIMIT_EXCEEDED));
+        submissions.add(new Submission(7, teams.get(0), problems.get(1), 1, 3900, Verdict.RUNTIME_ERROR));
+        submissions.add(new Submission(8, teams.get(2), problems.get(1), 2, 4200, Verdict.ACCEPTED));
+        submissions.add(new Submission(9, teams.get(3), problems.get(0), 1, 5400, Verdict.ACCEPTED));
+        return new Contest("Fruits", 300, problems, teams, submissions);
+    }
+
+    @Test
+    public void testRules() {
+        Contest contest = createContest();
+        StandingsEngine engine = new StandingsEngine(contest.getTeams(), contest.getProblems());
+        for (Submission submission : contest.getSubmissions().subList(0, 8)) {
+            engine.add(submission);
+        }
+        // Alpha solved A at 10 minutes, Beta at 15 minutes with one rejected attempt, the CE doesn't count
+        Assert.assertEquals(engine.getPenalty(0), 10);
+        Assert.assertEquals(engine.getPenalty(1), 35);
+        Assert.assertEquals(engine.getPenalty(2), 90);
+        Assert.assertEquals(engine.getRank(0), 1);
+        Assert.assertEquals(engine.getRank(1), 2);
+        Assert.assertEquals(engine.getRank(2), 3);
+        Assert.assertEquals(engine.getRank(3), 4);
+        Assert.assertEquals(engine.getTeamAt(0), 0);
+        Assert.assertEquals(engine.getTeamAt(3), 3);
+
+        StandingsSnapshot snapshot = engine.snapshot();
+        Assert.assertTrue(engine.add(contest.getSubmissions().get(8)));
+        // Delta ties with Gamma, and the snapshot keeps the old standings
+        Assert.assertEquals(engine.getRank(1), 2);
+        Assert.assertEquals(engine.getRank(2), 3);
+        Assert.assertEquals(engine.getRank(3), 3);
+        Assert.assertEquals(snapshot.getRows().get(3).getTeam().getName(), "Delta");
+        Assert.assertEquals(snapshot.getRows().get(3).getRank(), 4);
+        StandingsSnapshot.Row beta = snapshot.getRows().get(1);
+        Assert.assertEquals(beta.getRejectedAttempts(0), 1);
+        Assert.assertEquals(beta.getSolveTime(0), 900);
+        Assert.assertFalse(beta.isFirstToSolve(0));
+        Assert.assertTrue(snapshot.getRows().get(0).isFirstToSolve(0));
+
+        Assert.assertThrows(IllegalArgumentException.class, () -> engine.add(0, 1, 1000, Verdict.ACCEPTED));
+        Assert.assertThrows(IllegalArgumentException.class,
+                () -> engine.add(new Submission(10, new Team(5, "Unknown"), contest.getProblems().get(0), 1, 5000, Verdict.ACCEPTED)));
+    }
+
+    @Test
+    public void testOutputter() throws IOException {
+        File outputFile = new File(testDirectory, "standings.csv");
+        new StandingsOutputter().output(createContest(), outputFile.getPath());
+        String separator = System.lineSeparator();
+        String expected = "Rank,Team,Solved,Penalty,A,B" + separator
+                + "1,\"Alpha\",1,10,+ 0:10*,-1" + separator
+                + "2,\"Beta \"\"B\"\"\",1,35,+1 0:15," + separator
+                + "3,\"Gamma\",1,90,,+1 1:10*" + separator
+                + "3,\"Delta\",1,90,+ 1:30," + separator;
+        Assert.assertEquals(FileUtils.readFileToString(outputFile), expected);
+    }
+
+    @Test
+    public void testAgainstFullRecount() {
+        Contest contest = new ContestGenerator(20).setTeams(200).setProblems(10).setSubmissions(20000).generate();
+        StandingsEngine engine = new StandingsEngine(contest.getTeams(), contest.getProblems());
+        SubmissionTable submissions = contest.getSubmissionTable();
+        for (int row = 0; row < submissions.size(); row++) {
+            engine.add(submissions.getTeamIndex(row), submissions.getProblemIndex(row), submissions.getTime(row), submissions.getVerdict(row));
+            if (row % 2000 == 1999) {
+                assertSameAsRecount(engine, submissions, row + 1);
+            }
+        }
+    }
+
+    // recounts the standings of the first submissions from scratch and compares the ranks
+    private static void assertSameAsRecount(StandingsEngine engine, SubmissionTable submissions, int count) {
+        int teams = submissions.getTeams().size();
+        int problems = submissions.getProblems().size();
+        int[] solved = new int[teams];
+        long[] penalties = new long[teams];
+        int[] rejected = new int[teams * problems];
+        boolean[] accepted = new boolean[teams * problems];
+        for (int row = 0; row < count; row++) {
+            int cell = submissions.getTeamIndex(row) * problems + submissions.getProblemIndex(row);
+            Verdict verdict = submissions.getVerdict(row);
+            if (accepted[cell] || verdict == Verdict.COMPILATION_ERROR) {
+                continue;
+            }
+            if (verdict == Verdict.ACCEPTED) {
+                accepted[cell] = true;
+                solved[submissions.getTeamIndex(row)]++;
+                penalties[submissions.getTeamIndex(row)] += submissions.getTime(row) / 60 + 20 * rejected[cell];
+            } else {
+                rejected[cell]++;
+            }
+        }
+        StandingsSnapshot snapshot = engine.snapshot();
+        for (int team = 0; team < teams; team++) {
+            int rank = 1;
+            for (int other = 0; other < teams; other++) {
+                if (solved[other] > solved[team] || (solved[other] == solved[team] && penalties[other] < penalties[team])) {
+                    rank++;
+                }
+            }
+            Assert.assertEquals(engine.getSolved(team), solved[team]);
+            Assert.assertEquals(engine.getPenalty(team), penalties[team]);
+            Assert.assertEquals(engine.getRank(team), rank);
+        }
+        int previousTeam = -1;
+        for (StandingsSnapshot.Row row : snapshot.getRows()) {
+            int team = row.getTeam().getId();
+            Assert.assertEquals(row.getRank(), engine.getRank(team));
+            if (previousTeam >= 0) {
+                Assert.assertTrue(solved[previousTeam] > solved[team]
+                        || (solved[previousTeam] == solved[team] && penalties[previousTeam] <= penalties[team]));
+            }
+            previousTeam = team;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.github.standingsconverter;
+
+import com.github.standingsconverter.entity.Contest;
+import com.github.standingsconverter.generator.ContestFormats;
+import com.github.standingsconverter.generator.ContestGenerator;
+import com.github.standingsconverter.outputter.TestsysOutputter;
+import com.github.standingsconverter.parser.EjudgeParser;
+import com.github.standingsconverter.parser.IncrementalParser;
+import com.github.standingsconverter.parser.TestsysParser;
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+public class WatchModeTest {
+    private File testDirectory;
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private static Contest generate(long seed) {
+        return new ContestGenerator(seed).setTeams(100).setSubmissions(3000).generate();
+    }
+
+    // the positions of the string, or of the lines starting with it if it starts with a line break
+    private static List<Integer> findAll(byte[] data, String s) {
+        List<Integer> result = new ArrayList<>();
+        String text = new String(data, StandardCharsets.ISO_8859_1);
+        for (int i = text.indexOf(s); i >= 0; i = text.indexOf(s, i + 1)) {
+            result.add(s.charAt(0) == '\n' ? i + 1 : i);
+        }
+        return result;
+    }
+
+    private String toTestsys(Contest contest) throws IOException {
+        File file = new File(testDirectory, "standings.dat");
+        new TestsysOutputter().output(contest, file.getPath());
+        return FileUtils.readFileToString(file);
+    }
+
+    private void assertFollowsLog(IncrementalParser parser, String format, String recordStart) throws IOException {
+        File inputFile = new File(testDirectory, "log." + format);
+        File fullFile = new File(testDirectory, "full." + format);
+        ContestFormats.write(format, generate(22), fullFile.getPath());
+        byte[] data = FileUtils.readFileToByteArray(fullFile);
+        List<Integer> records = findAll(data, recordStart);
+
+        // the log is written up to the middle of a record, which has to wait for the next update
+        int half = records.size() / 2;
+        FileUtils.writeByteArrayToFile(inputFile, Arrays.copyOfRange(data, 0, records.get(half) + 10));
+        Contest first = parser.update(inputFile.getPath());
+        Assert.assertEquals(first.getSubmissions().size(), half);
+        String firstStandings = toTestsys(first);
+
+        int quarter = records.size() * 3 / 4;
+        FileUtils.writeByteArrayToFile(inputFile, Arrays.copyOfRange(data, records.get(half) + 10, records.get(quarter)), true);
+        Assert.assertEquals(parser.update(inputFile.getPath()).getSubmissions().size(), quarter);
+
+        FileUtils.writeByteArrayToFile(inputFile, Arrays.copyOfRange(data, records.get(quarter), data.length), true);
+        Contest last = parser.update(inputFile.getPath());
+        Assert.assertEquals(toTestsys(last), toTestsys(parser.parse(fullFile.getPath())));
+        // the contests returned by the earlier updates don't see the appended submissions
+        Assert.assertEquals(first.getSubmissions().size(), half);
+        Assert.assertEquals(toTestsys(first), firstStandings);
+        Assert.assertEquals(toTestsys(parser.update(inputFile.getPath())), toTestsys(last));
+
+        // a log which was written from scratch is parsed again
+        ContestFormats.write(format, generate(23), inputFile.getPath());
+        Assert.assertEquals(toTestsys(parser.update(inputFile.getPath())), toTestsys(parser.parse(inputFile.getPath())));
+
+        // and so is a truncated one
+        byte[] newData = FileUtils.readFileToByteArray(inputFile);
+        List<Integer> newRecords = findAll(newData, recordStart);
+        FileUtils.writeByteArrayToFile(inputFile, Arrays.copyOfRange(newData, 0, newRecords.get(newRecords.size() / 3)));
+        Assert.assertEquals(parser.update(inputFile.getPath()).getSubmissions().size(), newRecords.size() / 3);
+    }
+
+    @Test
+    public void testTestsys() throws IOException {
+        assertFollowsLog(new TestsysParser(), ContestFormats.TESTSYS, "\n@s ");
+    }
+
+    @Test
+    public void testEjudge() throws IOException {
+        assertFollowsLog(new EjudgeParser(), ContestFormats.EJUDGE, "<run ");
+    }
+
+    // a run appended out of order makes the parser read the whole log to sort the runs again
+    @Test
+    public void testEjudgeRunBeforeLastOne() throws IOException {
+        File inputFile = new File(testDirectory, "unordered.ejudge");
+        ContestFormats.writeEjudge(generate(24), inputFile);
+        byte[] data = FileUtils.readFileToByteArray(inputFile);
+        List<Integer> runs = findAll(data, "<run ");
+        int cut = runs.get(runs.size() - 1);
+        int end = findAll(data, "</runs>").get(0);
+        byte[] head = Arrays.copyOfRange(data, 0, runs.get(runs.size() - 2));
+        byte[] lastRun = Arrays.copyOfRange(data, cut, end);
+        byte[] previousRun = Arrays.copyOfRange(data, runs.get(runs.size() - 2), cut);
+        EjudgeParser parser = new EjudgeParser();
+        FileUtils.writeByteArrayToFile(inputFile, head);
+        FileUtils.writeByteArrayToFile(inputFile, lastRun, true);
+        parser.update(inputFile.getPath());
+        FileUtils.writeByteArrayToFile(inputFile, previousRun, true);
+        FileUtils.writeByteArrayToFile(inputFile, Arrays.copyOfRange(data, end, data.length), true);
+        Assert.assertEquals(toTestsys(parser.update(inputFile.getPath())), toTestsys(parser.parse(inputFile.getPath())));
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.standingsconverter.parser;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+public class AttemptCounterTest {
+    private static void assertCounts(AttemptCounter counter, Map<Long, Integer> expected, int teamId, int problemId) {
+        long key = ((long) teamId << 32) | (problemId & 0xFFFFFFFFL);
+        int attempt = expected.merge(key, 1, Integer::sum);
+        Assert.assertEquals(counter.next(teamId, problemId), attempt, "team " + teamId + ", problem " + problemId);
+    }
+
+    @Test
+    public void testDenseIds() {
+        AttemptCounter counter = new AttemptCounter();
+        Assert.assertEquals(counter.next(0, 0), 1);
+        Assert.assertEquals(counter.next(0, 0), 2);
+        Assert.assertEquals(counter.next(0, 1), 1);
+        Assert.assertEquals(counter.next(1, 0), 1);
+        Assert.assertEquals(counter.next(0, 0), 3);
+    }
+
+    // the teams and the problems appear one by one, so the dense table grows in both dimensions and keeps the counts
+    @Test
+    public void testGrowth() {
+        AttemptCounter counter = new AttemptCounter();
+        Map<Long, Integer> expected = new HashMap<>();
+        for (int round = 0; round < 3; round++) {
+            for (int problemId = 0; problemId < 20; problemId++) {
+                for (int teamId = 0; teamId < 500; teamId += 1 + problemId % 3) {
+                    assertCounts(counter, expected, teamId, problemId);
+                }
+            }
+        }
+        assertCounts(counter, expected, 498, 19);
+    }
+
+    // negative and huge ids go to the open-addressing map, which is rehashed several times here
+    @Test
+    public void testSparseIds() {
+        AttemptCounter counter = new AttemptCounter();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(12);
+        int[] teamIds = new int[300];
+        for (int i = 0; i < teamIds.length; i++) {
+            teamIds[i] = random.nextBoolean() ? -1 - random.nextInt(Integer.MAX_VALUE) : (1 << 24) + random.nextInt(1 << 30);
+        }
+        for (int i = 0; i < 20000; i++) {
+            assertCounts(counter, expected, teamIds[random.nextInt(teamIds.length)], random.nextInt(8) - 4);
+        }
+        assertCounts(counter, expected, Integer.MIN_VALUE, Integer.MIN_VALUE);
+        assertCounts(counter, expected, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertCounts(counter, expected, Integer.MIN_VALUE, Integer.MIN_VALUE);
+    }
+
+    // the dense and the sparse storage are used together without mixing the counts up
+    @Test
+    public void testMixedIds() {
+        AttemptCounter counter = new AttemptCounter();
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(13);
+        for (int i = 0; i < 20000; i++) {
+            int teamId = random.nextInt(10) == 0 ? -random.nextInt(50) : random.nextInt(200);
+            int problemId = random.nextInt(10) == 0 ? 1_000_000 + random.nextInt(5) : random.nextInt(12);
+            assertCounts(counter, expected, teamId, problemId);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.github.standingsconverter.parser;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class CodeforcesAPICacheTest {
+    private static final long TTL_MILLIS = 3_600_000;
+
+    private File testDirectory;
+
+    @BeforeClass
+    public void beforeClass() {
+        String uuid = UUID.randomUUID().toString();
+        testDirectory = new File(this.getClass().getSimpleName() + "_" + uuid);
+        if (!testDirectory.mkdir()) {
+            Assert.fail("Can't create test directory " + testDirectory);
+        }
+    }
+
+    @AfterClass
+    public void afterClass() {
+        if (!FileUtils.deleteQuietly(testDirectory)) {
+            Assert.fail("Can't delete test directory " + testDirectory);
+        }
+    }
+
+    private Path newDirectory() {
+        return new File(testDirectory, UUID.randomUUID().toString()).toPath();
+    }
+
+    private static CodeforcesAPICache.Validator accepting() {
+        return response -> {
+        };
+    }
+
+    private static String read(InputStream inputStream) throws IOException {
+        try (InputStream source = inputStream) {
+            return IOUtils.toString(source, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static InputStream response(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long count(Path directory, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).count();
+        }
+    }
+
+    @Test
+    public void testRejectedResponseNotStored() throws IOException {
+        Path directory = newDirectory();
+        CodeforcesAPICache.Validator validator = response -> {
+            if (new String(Files.readAllBytes(response), StandardCharsets.UTF_8).contains("FAILED")) {
+                throw new IOException("Failed response");
+            }
+        };
+        CodeforcesAPICache cache = new CodeforcesAPICache(directory, TTL_MILLIS, Long.MAX_VALUE, validator);
+        Assert.assertThrows(IOException.class, () -> cache.open("key", ifModifiedSince -> response("{\"status\":\"FAILED\"}")));
+        Assert.assertEquals(count(directory, ""), 0);
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 2; i++) {
+            String content = read(cache.open("key", ifModifiedSince -> {
+                loads.incrementAndGet();
+                return response("{\"status\":\"OK\"}");
+            }));
+            Assert.assertEquals(content, "{\"status\":\"OK\"}");
+        }
+        Assert.assertEquals(loads.get(), 1);
+    }
+
+    // an evicted entry takes its immutable marker along, so a new response for the key expires as usual
+    @Test
+    public void testEvictionRemovesMarker() throws IOException {
+        Path directory = newDirectory();
+        CodeforcesAPICache first = new CodeforcesAPICache(directory, TTL_MILLIS, 0, accepting());
+        read(first.open("old", ifModifiedSince -> response("old")));
+        first.markImmutable("old");
+        Assert.assertEquals(count(directory, ".immutable"), 1);
+
+        CodeforcesAPICache second = new CodeforcesAPICache(directory, TTL_MILLIS, 0, accepting());
+        read(second.open("new", ifModifiedSince -> response("new")));
+        Assert.assertEquals(count(directory, ".json"), 1);
+        Assert.assertEquals(count(directory, ".immutable"), 0);
+
+        CodeforcesAPICache third = new CodeforcesAPICache(directory, 0, Long.MAX_VALUE, accepting());
+        read(third.open("old", ifModifiedSince -> response("fetched again")));
+        AtomicInteger loads = new AtomicInteger();
+        String content = read(third.open("old", ifModifiedSince -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        Assert.assertEquals(content, "fetched again");
+        Assert.assertEquals(loads.get(), 1);
+    }
+
+    // the requests of one parse share the cache, and none of them evicts the response of another
+    @Test
+    public void testUsedEntriesKept() throws IOException {
+        Path directory = newDirectory();
+        CodeforcesAPICache cache = new CodeforcesAPICache(directory, TTL_MILLIS, 0, accepting());
+        InputStream standings = cache.open("standings", ifModifiedSince -> response("standings"));
+        InputStream status = cache.open("status", ifModifiedSince -> response("status"));
+        Assert.assertEquals(count(directory, ".json"), 2);
+        Assert.assertEquals(read(standings), "standings");
+        Assert.assertEquals(read(status), "status");
+    }
+}
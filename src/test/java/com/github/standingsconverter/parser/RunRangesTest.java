@@ -0,0 +1,114 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.Problem;
+import com.github.standingsconverter.entity.Submission;
+import com.github.standingsconverter.entity.Team;
+import com.github.standingsconverter.entity.Verdict;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class RunRangesTest {
+    private static final Team TEAM = new Team(1, "Team");
+    private static final Problem PROBLEM = new Problem('A', "Problem");
+
+    // the merge must give the same objects in the same order as the stable sort with the comparator
+    private static void assertMergedLikeComparator(List<Submission> submissions, RunRanges runRanges) {
+        List<Submission> expected = new ArrayList<>(submissions);
+        Collections.sort(expected, SubmissionOrdering.ORDER);
+        List<Submission> actual = runRanges.merge(new ArrayList<>(submissions));
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame(actual.get(i), expected.get(i), "position " + i);
+        }
+    }
+
+    // the runs of the given number of ranges with increasing ids in the list order, as a PCMS log gives them
+    private static List<Submission> generate(Random random, int ranges, int maxRangeSize, int maxTime, RunRanges runRanges) {
+        List<Submission> submissions = new ArrayList<>();
+        for (int range = 0; range < ranges; range++) {
+            int start = submissions.size();
+            long time = random.nextInt(maxTime);
+            int rangeSize = random.nextInt(maxRangeSize + 1);
+            for (int i = 0; i < rangeSize; i++) {
+                submissions.add(new Submission(submissions.size(), TEAM, PROBLEM, i + 1, time, Verdict.REJECTED));
+                time += random.nextInt(3);
+            }
+            runRanges.add(submissions, start, submissions.size());
+        }
+        return submissions;
+    }
+
+    @Test
+    public void testEmptyAndSingle() {
+        RunRanges runRanges = new RunRanges();
+        Assert.assertEquals(runRanges.merge(new ArrayList<>()), Collections.emptyList());
+        runRanges = new RunRanges();
+        assertMergedLikeComparator(generate(new Random(14), 1, 100, 1000, runRanges), runRanges);
+    }
+
+    @Test
+    public void testFewRanges() {
+        Random random = new Random(15);
+        for (int ranges = 2; ranges <= 10; ranges++) {
+            RunRanges runRanges = new RunRanges();
+            assertMergedLikeComparator(generate(random, ranges, 50, 300, runRanges), runRanges);
+        }
+    }
+
+    // many short ranges with equal times, as in a big contest
+    @Test
+    public void testManyRanges() {
+        Random random = new Random(16);
+        RunRanges runRanges = new RunRanges();
+        assertMergedLikeComparator(generate(random, 20000, 5, 300, runRanges), runRanges);
+        runRanges = new RunRanges();
+        assertMergedLikeComparator(generate(random, 3000, 40, 30, runRanges), runRanges);
+    }
+
+    @Test
+    public void testSortedInput() {
+        RunRanges runRanges = new RunRanges();
+        List<Submission> submissions = generate(new Random(17), 1, 1000, 10, runRanges);
+        Assert.assertSame(runRanges.merge(submissions), submissions);
+    }
+
+    // an unordered range or runs out of the ranges make the merge sort the whole list
+    @Test
+    public void testFallback() {
+        Random random = new Random(18);
+        RunRanges runRanges = new RunRanges();
+        List<Submission> submissions = generate(random, 100, 20, 300, runRanges);
+        int start = submissions.size();
+        submissions.add(new Submission(submissions.size(), TEAM, PROBLEM, 1, 200, Verdict.REJECTED));
+        submissions.add(new Submission(submissions.size(), TEAM, PROBLEM, 2, 100, Verdict.REJECTED));
+        runRanges.add(submissions, start, submissions.size());
+        assertMergedLikeComparator(submissions, runRanges);
+
+        runRanges = new RunRanges();
+        submissions = generate(random, 100, 20, 300, runRanges);
+        submissions.add(new Submission(submissions.size(), TEAM, PROBLEM, 1, 0, Verdict.REJECTED));
+        assertMergedLikeComparator(submissions, runRanges);
+    }
+
+    // a time or an id which doesn't fit the packed key of the heap, at the start or in the middle of a range
+    @Test
+    public void testWideValues() {
+        Random random = new Random(19);
+        long[] times = {0, (long) Integer.MAX_VALUE + 1};
+        for (long time : times) {
+            RunRanges runRanges = new RunRanges();
+            List<Submission> submissions = generate(random, 50, 20, 300, runRanges);
+            int start = submissions.size();
+            submissions.add(new Submission(-5, TEAM, PROBLEM, 1, time, Verdict.REJECTED));
+            submissions.add(new Submission(submissions.size(), TEAM, PROBLEM, 2, Long.MAX_VALUE, Verdict.REJECTED));
+            runRanges.add(submissions, start, submissions.size());
+            runRanges.add(submissions, submissions.size(), submissions.size());
+            assertMergedLikeComparator(submissions, runRanges);
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.standingsconverter.parser;
+
+import com.github.standingsconverter.entity.Problem;
+import com.github.standingsconverter.entity.Submission;
+import com.github.standingsconverter.entity.Team;
+import com.github.standingsconverter.entity.Verdict;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class SubmissionOrderingTest {
+    private static final Team TEAM = new Team(1, "Team");
+    private static final Problem PROBLEM = new Problem('A', "Problem");
+
+    private static Submission submission(int id, long time) {
+        return new Submission(id, TEAM, PROBLEM, 1, time, Verdict.WRONG_ANSWER);
+    }
+
+    // the sort must give the same objects in the same order as the stable sort with the comparator
+    private static void assertSortedLikeComparator(List<Submission> submissions) {
+        List<Submission> expected = new ArrayList<>(submissions);
+        Collections.sort(expected, SubmissionOrdering.ORDER);
+        List<Submission> actual = new ArrayList<>(submissions);
+        SubmissionOrdering.sort(actual);
+        Assert.assertEquals(actual.size(), expected.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Assert.assertSame(actual.get(i), expected.get(i), "position " + i);
+        }
+    }
+
+    private static List<Submission> random(Random random, int count, int maxTime, int maxId) {
+        List<Submission> submissions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            submissions.add(submission(random.nextInt(maxId), random.nextInt(maxTime)));
+        }
+        return submissions;
+    }
+
+    @Test
+    public void testEmptyAndSingle() {
+        assertSortedLikeComparator(new ArrayList<>());
+        assertSortedLikeComparator(Collections.singletonList(submission(1, 10)));
+    }
+
+    // few distinct times, so most of the order comes from the ids, and repeated ids check the stability
+    @Test
+    public void testEqualTimes() {
+        Random random = new Random(13);
+        assertSortedLikeComparator(random(random, 10000, 5, 3000));
+        assertSortedLikeComparator(random(random, 100, 1, 20));
+        assertSortedLikeComparator(random(random, 5000, 300 * 60, 1 << 30));
+    }
+
+    // the times and the ids vary in every 16-bit digit of the packed key
+    @Test
+    public void testWideKeys() {
+        Random random = new Random(14);
+        assertSortedLikeComparator(random(random, 5000, Integer.MAX_VALUE, Integer.MAX_VALUE));
+        List<Submission> sorted = random(random, 1000, 1000, 1000);
+        Collections.sort(sorted, SubmissionOrdering.ORDER);
+        assertSortedLikeComparator(sorted);
+    }
+
+    // a negative time, a time which doesn't fit in the key or a negative id makes the sort use the comparator
+    @Test
+    public void testComparatorFallback() {
+        Random random = new Random(15);
+        long[] badTimes = {-1, (long) Integer.MAX_VALUE + 1, Long.MAX_VALUE, Long.MIN_VALUE};
+        for (long badTime : badTimes) {
+            List<Submission> submissions = random(random, 1000, 100, 500);
+            submissions.set(random.nextInt(submissions.size()), submission(7, badTime));
+            assertSortedLikeComparator(submissions);
+        }
+        List<Submission> submissions = random(random, 1000, 100, 500);
+        submissions.set(500, submission(-3, 50));
+        submissions.set(600, submission(Integer.MIN_VALUE, 50));
+        assertSortedLikeComparator(submissions);
+    }
+
+    @Test
+    public void testRadixSort() {
+        Assert.assertEquals(SubmissionOrdering.radixSort(new long[0]), new int[0]);
+        Assert.assertEquals(SubmissionOrdering.radixSort(new long[]{5}), new int[]{0});
+        Assert.assertEquals(SubmissionOrdering.radixSort(new long[]{3, 1, 3, 2, 1}), new int[]{1, 4, 3, 0, 2});
+        Assert.assertEquals(SubmissionOrdering.radixSort(new long[]{Long.MAX_VALUE, 1L << 48, 0, 1L << 16}), new int[]{2, 3, 1, 0});
+    }
+}